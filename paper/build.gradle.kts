@@ -6,6 +6,8 @@ plugins {
 	id("io.papermc.paperweight.userdev") version "1.3.8"
 	// Shadow -> https://github.com/johnrengelman/shadow/releases
 	id("com.github.johnrengelman.shadow") version "7.1.2"
+	// JMH -> https://github.com/melix/jmh-gradle-plugin/releases
+	id("me.champeau.jmh") version "0.6.8"
 }
 
 dependencies {
@@ -15,6 +17,23 @@ dependencies {
 
 	compileOnly("org.projectlombok:lombok:1.18.24")
 	annotationProcessor("org.projectlombok:lombok:1.18.24")
+
+	// The plugin only has compile-time dependencies, so the benchmarks need their own at runtime
+	jmh("it.unimi.dsi:fastutil:8.5.6")
+	jmh("org.apache.commons:commons-lang3:3.12.0")
+	jmh("org.jetbrains:annotations:23.0.0")
+}
+
+configurations {
+	// Some benchmarks build NMS items, which only needs the server's classes and not a running server
+	named("jmhImplementation") {
+		extendsFrom(getByName("mojangMappedServerRuntime"))
+	}
+}
+
+jmh {
+	jmhVersion.set("1.36")
+	resultFormat.set("TEXT")
 }
 
 tasks {
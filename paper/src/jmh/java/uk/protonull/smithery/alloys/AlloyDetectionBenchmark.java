@@ -0,0 +1,144 @@
+package uk.protonull.smithery.alloys;
+
+import java.util.concurrent.TimeUnit;
+import net.minecraft.nbt.ByteArrayTag;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
+import org.apache.commons.lang3.EnumUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares how much it costs to read the Alloy from an item, as is done for every item in every crafting, furnace and
+ * Forge event, before and after Alloys were read straight from the item's NBT.
+ *
+ * <p>{@link ItemStack#getItemMeta()} cannot be called without a running server, so the old path is modelled as a copy
+ * of the item's tag followed by the nested container decode. The real meta clone also parses the display name, lore
+ * and enchantments into their Bukkit forms, so this understates the old path's cost.
+ *
+ * <p>Run with: {@code ./gradlew :paper:jmh}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AlloyDetectionBenchmark {
+
+    /**
+     * Where CraftBukkit stores an item's persistent data within the item's NBT.
+     */
+    private static final String BUKKIT_VALUES_KEY = "PublicBukkitValues";
+    private static final String ALLOY_NBT_KEY = Alloy.PDC_KEY.toString();
+    private static final String LEGACY_TYPE_KEY = ".:type";
+    private static final String LEGACY_QUALITY_KEY = ".:quality";
+
+    private CompoundTag legacyAlloyTag;
+    private CompoundTag compactAlloyTag;
+    private CompoundTag swordTag;
+    private ItemStack sword;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final var legacy = new CompoundTag();
+        legacy.putString(LEGACY_TYPE_KEY, "BRONZE");
+        legacy.putString(LEGACY_QUALITY_KEY, AlloyQuality.GOOD.name());
+        this.legacyAlloyTag = newItemTag(legacy);
+        this.compactAlloyTag = newItemTag(new ByteArrayTag(Alloy.of("BRONZE", AlloyQuality.GOOD).encode()));
+        this.swordTag = newItemTag(null);
+        this.sword = new ItemStack(Material.DIAMOND_SWORD);
+    }
+
+    /**
+     * @param alloy The Alloy NBT to store in the item's persistent data, if any.
+     * @return Returns the NBT of a named, enchanted item with lore, which is what Alloy items look like.
+     */
+    private static @NotNull CompoundTag newItemTag(final @Nullable Tag alloy) {
+        final var display = new CompoundTag();
+        display.putString("Name", "{\"italic\":false,\"text\":\"Bronze\"}");
+        final var lore = new ListTag();
+        lore.add(StringTag.valueOf("{\"italic\":false,\"color\":\"white\",\"text\":\"Quality: \","
+                + "\"extra\":[{\"color\":\"green\",\"text\":\"GOOD\"}]}"));
+        display.put("Lore", lore);
+        final var enchantment = new CompoundTag();
+        enchantment.putString("id", "minecraft:luck_of_the_sea");
+        enchantment.putShort("lvl", (short) 1);
+        final var enchantments = new ListTag();
+        enchantments.add(enchantment);
+        final var tag = new CompoundTag();
+        tag.put("display", display);
+        tag.put("Enchantments", enchantments);
+        tag.putInt("HideFlags", 1);
+        if (alloy != null) {
+            final var values = new CompoundTag();
+            values.put(ALLOY_NBT_KEY, alloy);
+            tag.put(BUKKIT_VALUES_KEY, values);
+        }
+        return tag;
+    }
+
+    @Benchmark
+    public LegacyAlloy legacyMetaClone() {
+        return decodeLegacy(this.legacyAlloyTag.copy());
+    }
+
+    @Benchmark
+    public Alloy compactNBT() {
+        return AlloyUtils.getAlloyFromNBT(this.compactAlloyTag);
+    }
+
+    @Benchmark
+    public LegacyAlloy legacyNonAlloy() {
+        return decodeLegacy(this.swordTag.copy());
+    }
+
+    @Benchmark
+    public Alloy materialRejection() {
+        return AlloyUtils.getAlloyFromItem(this.sword);
+    }
+
+    /**
+     * Alloy as it was when it was still a record, kept as a baseline.
+     */
+    public record LegacyAlloy(@NotNull String recipe,
+                              @NotNull AlloyQuality quality) {
+    }
+
+    /**
+     * {@link AlloyUtils#getAlloyFromItem(ItemStack)} as it was before it read straight from NBT, minus the meta clone.
+     */
+    private static @Nullable LegacyAlloy decodeLegacy(final @NotNull CompoundTag meta) {
+        if (!(meta.get(BUKKIT_VALUES_KEY) instanceof final CompoundTag values)
+                || !(values.get(ALLOY_NBT_KEY) instanceof final CompoundTag alloy)) {
+            return null;
+        }
+        final String recipe = alloy.getString(LEGACY_TYPE_KEY);
+        if (StringUtils.isBlank(recipe)) {
+            return null;
+        }
+        return new LegacyAlloy(
+                recipe,
+                EnumUtils.getEnum(
+                        AlloyQuality.class,
+                        alloy.getString(LEGACY_QUALITY_KEY),
+                        AlloyQuality.BEST));
+    }
+
+}
@@ -0,0 +1,149 @@
+package uk.protonull.smithery.utilities;
+
+import it.unimi.dsi.fastutil.objects.Object2IntArrayMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link IntAmountMap.TotallingArrayMap} against the maps Forges have previously used for their ingredients.
+ * Each invocation replays the same ingredient insertions and removals into a new map, reading the total amount after
+ * each one, as a Forge does when it's filled and drained.
+ *
+ * <p>Run with: {@code ./gradlew :paper:jmh}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AmountMapBenchmark {
+
+    private static final int OPERATIONS = 64;
+
+    /**
+     * How many distinct ingredients are inserted.
+     */
+    @Param({"4", "12"})
+    public int ingredients;
+
+    private String[] stringKeys;
+    private int[] intKeys;
+    private int[] amounts;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final var random = new Random(0xF0_26E);
+        this.stringKeys = new String[OPERATIONS];
+        this.intKeys = new int[OPERATIONS];
+        this.amounts = new int[OPERATIONS];
+        final var current = new int[this.ingredients];
+        for (int i = 0; i < OPERATIONS; i++) {
+            final int ingredient = random.nextInt(this.ingredients);
+            this.stringKeys[i] = ("INGREDIENT_" + ingredient).intern();
+            this.intKeys[i] = ingredient + 1;
+            // Mostly insertions, with the occasional removal of everything of that ingredient
+            this.amounts[i] = random.nextInt(8) == 0 ? -current[ingredient] : 1 + random.nextInt(16);
+            current[ingredient] += this.amounts[i];
+        }
+    }
+
+    @Benchmark
+    public int boxedAmountMap() {
+        final var map = new BoxedAmountMap<String>();
+        int checksum = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            map.changeAmountBy(this.stringKeys[i], this.amounts[i]);
+            map.removeEmpties();
+            checksum += map.getTotalAmount();
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public int amountMap() {
+        final var map = new AmountMap.ArrayMap<String>();
+        int checksum = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            map.changeAmountBy(this.stringKeys[i], this.amounts[i]);
+            map.removeEmpties();
+            checksum += map.getTotalAmount();
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public int intArrayMap() {
+        final var map = new IntAmountMap.ArrayMap();
+        int checksum = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            map.changeAmountBy(this.intKeys[i], this.amounts[i]);
+            map.removeEmpties();
+            checksum += map.getTotalAmount();
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public int totallingArrayMap() {
+        final var map = new IntAmountMap.TotallingArrayMap();
+        int checksum = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            map.changeAmountBy(this.intKeys[i], this.amounts[i]);
+            map.removeEmpties();
+            checksum += map.getTotalAmount();
+        }
+        return checksum;
+    }
+
+    /**
+     * {@link AmountMap.ArrayMap} as it was before its defaults stopped boxing, kept as a baseline.
+     */
+    private static final class BoxedAmountMap<T> extends Object2IntArrayMap<T> {
+
+        public void removeEmpties() {
+            values().removeIf((final Integer amount) -> amount == null || amount < 1);
+        }
+
+        public int getTotalAmount() {
+            int amount = 0;
+            for (final int currentAmount : values()) {
+                if (currentAmount > 0) {
+                    amount += currentAmount;
+                }
+            }
+            return amount;
+        }
+
+        public int computeAmount(final T key,
+                                 final @NotNull IntUnaryOperator computer) {
+            // The original unboxed this result directly, which threw once an amount reached zero
+            final Integer result = compute(key, (_key, amount) -> {
+                amount = computer.applyAsInt(amount == null ? defaultReturnValue() : amount);
+                return amount <= 0 ? null : amount;
+            });
+            return result == null ? 0 : result;
+        }
+
+        public int changeAmountBy(final T key,
+                                  final int amount) {
+            return computeAmount(key, (final int currentAmount) -> currentAmount + amount);
+        }
+
+    }
+
+}
@@ -1,19 +1,29 @@
 package uk.protonull.smithery;
 
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
-import uk.protonull.smithery.alloys.AlloyCombinations;
+import org.jetbrains.annotations.Nullable;
 import uk.protonull.smithery.alloys.AlloyListener;
+import uk.protonull.smithery.alloys.AlloyUtils;
 import uk.protonull.smithery.commands.CommandRegistrar;
 import uk.protonull.smithery.config.Config;
+import uk.protonull.smithery.config.RecipeSnapshot;
+import uk.protonull.smithery.forge.ForgeAutosaver;
 import uk.protonull.smithery.forge.ForgeListener;
+import uk.protonull.smithery.forge.ForgeLoader;
 import uk.protonull.smithery.forge.ForgeManager;
 import vg.civcraft.mc.civmodcore.ACivMod;
 
 public final class Smithery extends ACivMod {
 
     private CommandRegistrar commands;
+    private ForgeLoader loader;
+    private ForgeAutosaver autosaver;
 
     @Override
     public void onEnable() {
@@ -30,13 +40,24 @@ public final class Smithery extends ACivMod {
         this.commands.init();
         registerListener(new ForgeListener());
         registerListener(new AlloyListener());
-        ForgeManager.loadAllForges();
-        AlloyCombinations.generateCombinations();
+        this.loader = new ForgeLoader();
+        this.loader.start(this);
+        AlloyUtils.refreshRecipeFlags();
+        this.autosaver = new ForgeAutosaver();
+        this.autosaver.start(this);
     }
 
     @Override
     public void onDisable() {
-        AlloyCombinations.clearCombinations();
+        if (this.loader != null) {
+            this.loader.stop();
+            this.loader = null;
+        }
+        if (this.autosaver != null) {
+            this.autosaver.stop();
+            this.autosaver = null;
+        }
+        AlloyUtils.clearRecipeFlags();
         ForgeManager.saveAllForges();
         Config.reset();
         if (this.commands != null) {
@@ -45,6 +66,39 @@ public final class Smithery extends ACivMod {
         }
     }
 
+    /**
+     * Re-parses the recipes from the config file and recipes directory off the main thread, then publishes them on the
+     * main thread as a single snapshot, building the Alloy item prototypes as it does. Other settings are left alone
+     * until the next restart.
+     *
+     * @return Returns a future of the new snapshot, completed on the main thread.
+     */
+    public @NotNull CompletableFuture<RecipeSnapshot> reloadRecipes() {
+        final var configFile = new File(getDataFolder(), "config.yml");
+        return CompletableFuture
+                .supplyAsync(
+                        () -> RecipeSnapshot.load(
+                                Config.findParser(YamlConfiguration.loadConfiguration(configFile)),
+                                getDataFolder()),
+                        (final Runnable task) -> Bukkit.getScheduler().runTaskAsynchronously(this, task))
+                .thenApplyAsync(
+                        (final RecipeSnapshot snapshot) -> {
+                            Config.setRecipeSnapshot(snapshot);
+                            // Other plugins may have changed their crafting recipes since
+                            AlloyUtils.refreshRecipeFlags();
+                            getLogger().info("Reloaded " + snapshot.getRecipes().size() + " recipes.");
+                            return snapshot;
+                        },
+                        (final Runnable task) -> Bukkit.getScheduler().runTask(this, task));
+    }
+
+    /**
+     * @return Returns the Forge autosaver, or null if Smithery isn't enabled.
+     */
+    public @Nullable ForgeAutosaver getAutosaver() {
+        return this.autosaver;
+    }
+
     public static @NotNull Smithery getInstance() {
         return JavaPlugin.getPlugin(Smithery.class);
     }
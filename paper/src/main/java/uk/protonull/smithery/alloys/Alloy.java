@@ -1,5 +1,11 @@
 package uk.protonull.smithery.alloys;
 
+import it.unimi.dsi.fastutil.bytes.ByteArrays;
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenCustomHashMap;
+import java.nio.charset.StandardCharsets;
+import net.minecraft.nbt.ByteArrayTag;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
 import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.bukkit.NamespacedKey;
@@ -7,24 +13,107 @@ import org.bukkit.persistence.PersistentDataAdapterContext;
 import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.persistence.PersistentDataType;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.protonull.smithery.config.Config;
+import uk.protonull.smithery.utilities.IngredientRegistry;
 
-public record Alloy(@NotNull String recipe,
-                    @NotNull AlloyQuality quality) {
+/**
+ * A recipe's Alloy of a particular quality. Use {@link #of(String, AlloyQuality)} or {@link #fromKey(String)} to get
+ * the canonical instance from the current {@link AlloyTable}, which has its key and ingredient ID already computed,
+ * and so can be compared by reference. Alloys of recipes that don't exist are still created, but are not canonical.
+ */
+public final class Alloy {
+
+    private final String recipe;
+    private final AlloyQuality quality;
+    private final String key;
+    private final int ingredientID;
+
+    /**
+     * Alloy used to be a record, so this is kept for compatibility. The new Alloy is equal to, and shares its computed
+     * state with, the canonical Alloy, but is not itself canonical.
+     *
+     * @param recipe The recipe slug that created this alloy.
+     * @param quality The quality of this alloy.
+     * @deprecated Always creates a non-canonical copy, which is equal to the canonical Alloy but not the same
+     *             instance, so comparing it by reference silently fails. Use {@link #of(String, AlloyQuality)}
+     *             instead, which returns the canonical Alloy where possible.
+     */
+    @Deprecated
+    public Alloy(final String recipe,
+                 final AlloyQuality quality) {
+        this(of(recipe, quality));
+    }
+
+    private Alloy(final @NotNull Alloy other) {
+        this(other.recipe, other.quality, other.key, other.ingredientID);
+    }
+
+    private Alloy(final @NotNull String recipe,
+                  final @NotNull AlloyQuality quality,
+                  final @NotNull String key,
+                  final int ingredientID) {
+        this.recipe = recipe;
+        this.quality = quality;
+        this.key = key;
+        this.ingredientID = ingredientID;
+    }
 
     /**
-     * Creates a new alloy.
+     * Creates a new alloy. Use {@link #of(String, AlloyQuality)} instead, unless building an {@link AlloyTable}.
      *
      * @param recipe The recipe slug that created this alloy.
      * @param quality The quality of this alloy.
+     * @return Returns a new, non-canonical alloy.
      */
-    public Alloy {
+    static @NotNull Alloy create(final String recipe,
+                                 final AlloyQuality quality) {
         if (StringUtils.isBlank(recipe)) {
             throw new IllegalArgumentException("Alloy recipe cannot be blank!");
         }
-        recipe = recipe.toUpperCase();
-        if (quality == null) { // Ignore highlighter
+        if (quality == null) {
             throw new IllegalArgumentException("Alloy quality cannot be null!");
         }
+        final String slug = recipe.toUpperCase();
+        final String key = quality.isBest() ? slug : slug + ":" + quality;
+        return new Alloy(slug, quality, key, IngredientRegistry.getID(key));
+    }
+
+    /**
+     * Recipe slugs are always upper-case, so the slug is looked up as given, and is only upper-cased if that fails.
+     *
+     * @param recipe The recipe slug that created the alloy, ignoring case.
+     * @param quality The quality of the alloy.
+     * @return Returns the canonical alloy, or a new alloy if the recipe isn't known.
+     */
+    public static @NotNull Alloy of(final @NotNull String recipe,
+                                    final @NotNull AlloyQuality quality) {
+        if (recipe == null || quality == null) {
+            return create(recipe, quality);
+        }
+        final AlloyTable table = Config.getAlloyTable();
+        final Alloy canonical = table.get(recipe, quality);
+        if (canonical != null) {
+            return canonical;
+        }
+        // toUpperCase() returns the same String if nothing changed, in which case there's no point looking again
+        final String slug = recipe.toUpperCase();
+        final Alloy normalised = slug == recipe ? null : table.get(slug, quality);
+        return normalised != null ? normalised : create(slug, quality);
+    }
+
+    /**
+     * @return Returns the slug of the recipe that created this alloy.
+     */
+    public @NotNull String recipe() {
+        return this.recipe;
+    }
+
+    /**
+     * @return Returns the quality of this alloy.
+     */
+    public @NotNull AlloyQuality quality() {
+        return this.quality;
     }
 
     /**
@@ -34,36 +123,201 @@ public record Alloy(@NotNull String recipe,
      * @return Returns true if this alloy is slag.
      */
     public boolean isSlag() {
-        return StringUtils.equals(recipe(), SLAG.recipe());
+        return this == SLAG || this.recipe.equals(SLAG.recipe);
     }
 
     /**
      * @return Encodes this Alloy into a string.
      */
     public @NotNull String generateKey() {
-        return quality().isBest() ? recipe() : recipe() + ":" + quality();
+        return this.key;
+    }
+
+    /**
+     * @return Returns this Alloy's interned ingredient ID, as per {@link IngredientRegistry}.
+     */
+    public int getIngredientID() {
+        return this.ingredientID;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        return other instanceof final Alloy alloy
+                && this.quality == alloy.quality
+                && this.recipe.equals(alloy.recipe);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.recipe.hashCode() + this.quality.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Alloy[recipe=" + this.recipe + ", quality=" + this.quality + "]";
     }
 
     /**
-     * Decodes an Alloy from a string.
+     * Decodes an Alloy from a string. Like {@link #of(String, AlloyQuality)}, the key is looked up as given, and is
+     * only upper-cased if that fails.
      *
-     * @param raw The string to decode.
-     * @return Returns a new Alloy based on the given string.
+     * @param key The string to decode, ignoring case.
+     * @return Returns the canonical Alloy for the given string, or a new Alloy if the recipe isn't known.
      */
-    public static @NotNull Alloy fromKey(final @NotNull String raw) {
-        final String[] parts = StringUtils.split(raw, ":");
-        return switch (parts.length) {
-            case 1 -> new Alloy(parts[0], AlloyQuality.BEST);
-            case 2 -> new Alloy(parts[0], AlloyQuality.valueOf(parts[1]));
-            default -> throw new IllegalArgumentException("Alloy key [" + raw + "] is invalid!");
-        };
+    public static @NotNull Alloy fromKey(final @NotNull String key) {
+        final AlloyTable table = Config.getAlloyTable();
+        final Alloy canonical = table.fromKey(key);
+        if (canonical != null) {
+            return canonical;
+        }
+        final String raw = key.toUpperCase();
+        final Alloy normalised = raw == key ? null : table.fromKey(raw);
+        if (normalised != null) {
+            return normalised;
+        }
+        final int separator = raw.indexOf(':');
+        if (separator < 0) {
+            return of(raw, AlloyQuality.BEST);
+        }
+        if (separator != raw.lastIndexOf(':')) {
+            throw new IllegalArgumentException("Alloy key [" + raw + "] is invalid!");
+        }
+        return of(raw.substring(0, separator), AlloyQuality.valueOf(raw.substring(separator + 1)));
     }
 
-    public static final Alloy SLAG = new Alloy("NONE", AlloyQuality.BEST);
+    public static final Alloy SLAG = create("NONE", AlloyQuality.BEST);
     public static final NamespacedKey PDC_KEY = new NamespacedKey("smithery", "alloy");
-    public static PersistentDataType<PersistentDataContainer, Alloy> TYPE = new PersistentDataType<>() {
-        private static final NamespacedKey TYPE_KEY = new NamespacedKey(".", "type");
-        private static final NamespacedKey QUALITY_KEY = new NamespacedKey(".", "quality");
+
+    // ------------------------------------------------------------
+    // Encoding
+    // ------------------------------------------------------------
+
+    /**
+     * Alloys are encoded as: [version, quality ordinal, recipe slug as UTF-8...]
+     */
+    private static final byte ENCODING_VERSION = 1;
+    private static final int DECODE_CACHE_SIZE = 1024;
+    private static final AlloyQuality[] QUALITIES = AlloyQuality.values();
+    /**
+     * Maps encoded alloys to their decoded form, evicting the least recently used when full. Items stack and get
+     * re-read constantly, so the same few payloads come up again and again.
+     */
+    private static final Object2ObjectLinkedOpenCustomHashMap<byte[], Alloy> DECODE_CACHE =
+            new Object2ObjectLinkedOpenCustomHashMap<>(DECODE_CACHE_SIZE, ByteArrays.HASH_STRATEGY);
+
+    /**
+     * @return Returns this Alloy's compact encoding.
+     */
+    public byte[] encode() {
+        final byte[] slug = recipe().getBytes(StandardCharsets.UTF_8);
+        final var encoded = new byte[slug.length + 2];
+        encoded[0] = ENCODING_VERSION;
+        encoded[1] = (byte) quality().ordinal();
+        System.arraycopy(slug, 0, encoded, 2, slug.length);
+        return encoded;
+    }
+
+    /**
+     * Decodes an Alloy from its compact encoding, as per {@link #encode()}.
+     *
+     * @param encoded The encoded Alloy, which will not be modified.
+     * @return Returns the decoded Alloy, or null if the encoding is invalid.
+     */
+    public static @Nullable Alloy decode(final byte[] encoded) {
+        synchronized (DECODE_CACHE) {
+            final Alloy cached = DECODE_CACHE.getAndMoveToLast(encoded);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        if (encoded.length < 3
+                || encoded[0] != ENCODING_VERSION
+                || encoded[1] < 0
+                || encoded[1] >= QUALITIES.length) {
+            return null;
+        }
+        final Alloy alloy = of(
+                new String(encoded, 2, encoded.length - 2, StandardCharsets.UTF_8),
+                QUALITIES[encoded[1]]);
+        synchronized (DECODE_CACHE) {
+            if (DECODE_CACHE.size() >= DECODE_CACHE_SIZE) {
+                DECODE_CACHE.removeFirst();
+            }
+            DECODE_CACHE.putAndMoveToLast(encoded.clone(), alloy);
+        }
+        return alloy;
+    }
+
+    /**
+     * Clears the decode cache, such as when the canonical Alloys have changed.
+     */
+    public static void clearDecodeCache() {
+        synchronized (DECODE_CACHE) {
+            DECODE_CACHE.clear();
+        }
+    }
+
+    /**
+     * Decodes an Alloy directly from the raw NBT that {@link #TYPE} or {@link #LEGACY_TYPE} is stored as, which allows
+     * alloys to be read from items without going through their meta.
+     *
+     * @param nbt The NBT stored under {@link #PDC_KEY}.
+     * @return Returns the decoded Alloy, or null if the NBT is not a valid Alloy.
+     */
+    public static @Nullable Alloy fromNBT(final @NotNull Tag nbt) {
+        if (nbt instanceof final ByteArrayTag encoded) {
+            return decode(encoded.getAsByteArray());
+        }
+        if (nbt instanceof final CompoundTag legacy) {
+            final String recipe = legacy.getString(LEGACY_TYPE_KEY.toString());
+            if (StringUtils.isBlank(recipe)) {
+                return null;
+            }
+            return of(
+                    recipe,
+                    EnumUtils.getEnum(
+                            AlloyQuality.class,
+                            legacy.getString(LEGACY_QUALITY_KEY.toString()),
+                            AlloyQuality.BEST));
+        }
+        return null;
+    }
+
+    public static final PersistentDataType<byte[], Alloy> TYPE = new PersistentDataType<>() {
+        @Override
+        public @NotNull Class<byte[]> getPrimitiveType() {
+            return byte[].class;
+        }
+        @Override
+        public @NotNull Class<Alloy> getComplexType() {
+            return Alloy.class;
+        }
+        @Override
+        public byte[] toPrimitive(final @NotNull Alloy alloy,
+                                  final @NotNull PersistentDataAdapterContext context) {
+            return alloy.encode();
+        }
+        @Override
+        public @NotNull Alloy fromPrimitive(final byte[] encoded,
+                                            final @NotNull PersistentDataAdapterContext context) {
+            final Alloy alloy = decode(encoded);
+            if (alloy == null) {
+                throw new IllegalArgumentException("Encoded alloy is invalid!");
+            }
+            return alloy;
+        }
+    };
+
+    private static final NamespacedKey LEGACY_TYPE_KEY = new NamespacedKey(".", "type");
+    private static final NamespacedKey LEGACY_QUALITY_KEY = new NamespacedKey(".", "quality");
+    /**
+     * The original encoding: a nested container with the recipe and quality as strings. Alloys are no longer encoded
+     * like this, but existing items must still be readable.
+     */
+    public static final PersistentDataType<PersistentDataContainer, Alloy> LEGACY_TYPE = new PersistentDataType<>() {
         @Override
         public @NotNull Class<PersistentDataContainer> getPrimitiveType() {
             return PersistentDataContainer.class;
@@ -76,20 +330,20 @@ public record Alloy(@NotNull String recipe,
         public @NotNull PersistentDataContainer toPrimitive(final @NotNull Alloy alloy,
                                                             final @NotNull PersistentDataAdapterContext context) {
             final PersistentDataContainer pdc = context.newPersistentDataContainer();
-            pdc.set(TYPE_KEY, PersistentDataType.STRING, alloy.recipe());
+            pdc.set(LEGACY_TYPE_KEY, PersistentDataType.STRING, alloy.recipe());
             if (!alloy.quality().isBest()) {
-                pdc.set(QUALITY_KEY, PersistentDataType.STRING, alloy.quality().name());
+                pdc.set(LEGACY_QUALITY_KEY, PersistentDataType.STRING, alloy.quality().name());
             }
             return pdc;
         }
         @Override
         public @NotNull Alloy fromPrimitive(final @NotNull PersistentDataContainer pdc,
                                             final @NotNull PersistentDataAdapterContext context) {
-            return new Alloy(
-                    pdc.get(TYPE_KEY, PersistentDataType.STRING), // Ignore highlighter
+            return of(
+                    pdc.get(LEGACY_TYPE_KEY, PersistentDataType.STRING), // Ignore highlighter
                     EnumUtils.getEnum(
                             AlloyQuality.class,
-                            pdc.get(QUALITY_KEY, PersistentDataType.STRING),
+                            pdc.get(LEGACY_QUALITY_KEY, PersistentDataType.STRING),
                             AlloyQuality.BEST));
         }
     };
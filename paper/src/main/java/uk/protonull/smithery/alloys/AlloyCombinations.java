@@ -1,57 +1,95 @@
 package uk.protonull.smithery.alloys;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.function.Predicate;
-import java.util.stream.Stream;
 import lombok.experimental.UtilityClass;
-import org.bukkit.NamespacedKey;
-import org.bukkit.inventory.Recipe;
-import org.bukkit.inventory.ShapedRecipe;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
 import uk.protonull.smithery.config.Config;
-import uk.protonull.smithery.forge.ForgeRecipe;
+import uk.protonull.smithery.config.RecipeSnapshot;
 import uk.protonull.smithery.utilities.Utilities;
-import vg.civcraft.mc.civmodcore.inventory.RecipeManager;
-import vg.civcraft.mc.civmodcore.utilities.CivLogger;
 
+/**
+ * Allows players to craft a better version of an Alloy by combining four of the same Alloy in a 2x2 square anywhere in
+ * a crafting matrix. Rather than registering a recipe for every quality of every Forge recipe, the pattern is
+ * recognised straight from the matrix and the upgraded Alloy is looked up in the current recipe snapshot, so the
+ * server's recipe registry is untouched no matter how many Forge recipes there are.
+ */
 @UtilityClass
 public class AlloyCombinations {
 
-    private final CivLogger LOGGER = CivLogger.getLogger(AlloyCombinations.class);
-    private final List<AlloyQuality> QUALITIES = Stream.of(AlloyQuality.values())
-            .filter(Predicate.not(AlloyQuality::isBest))
-            .toList();
-    private final List<Recipe> RECIPES = new ArrayList<>();
-    private int counter = 0;
+    private final int PATTERN_SIZE = 4;
 
     /**
-     * Generates recipes that allow players to craft better versions of Alloys by combining them in a crafting matrix.
+     * Determines which Alloy, if any, is being combined in the given crafting matrix.
+     *
+     * @param matrix The crafting matrix, which must be square.
+     * @return Returns the Alloy being combined, or null if the matrix isn't four of the same upgradable Alloy in a 2x2
+     *         square and nothing else.
      */
-    public void generateCombinations() {
-        for (final ForgeRecipe recipe : Config.RECIPES.get()) {
-            for (final AlloyQuality quality : QUALITIES) {
-                final var shapedRecipe = new ShapedRecipe(
-                        new NamespacedKey("smithery", "combination_" + (counter++)),
-                        AlloyUtils.createAlloyFromRecipe(recipe, quality.upgrade()));
-                shapedRecipe.shape("xx", "xx");
-                shapedRecipe.setIngredient('x', AlloyUtils.createAlloyFromRecipe(recipe, quality));
-                if (!RecipeManager.registerRecipe(shapedRecipe)) {
-                    LOGGER.warning("Could not register Alloy[" + recipe.slug() + "] combination "
-                            + "from [" + quality + "] to [" + quality.upgrade() + "]");
-                    continue;
+    public @Nullable Alloy getCombinedAlloy(final ItemStack[] matrix) {
+        final int width = (int) Math.sqrt(matrix.length);
+        if (width < 2 || width * width != matrix.length) {
+            return null;
+        }
+        int first = -1;
+        int filled = 0;
+        for (int i = 0; i < matrix.length; i++) {
+            if (!Utilities.isEmptyItem(matrix[i])) {
+                if (first < 0) {
+                    first = i;
                 }
-                RECIPES.add(shapedRecipe);
+                filled++;
             }
         }
+        // The first filled slot must be the top-left of the square
+        if (filled != PATTERN_SIZE || first % width == width - 1 || first + width + 1 >= matrix.length) {
+            return null;
+        }
+        final Alloy alloy = AlloyUtils.getAlloyFromItem(matrix[first]);
+        if (alloy == null || alloy.isSlag() || alloy.quality().isBest()) {
+            return null;
+        }
+        for (final int slot : new int[] { first + 1, first + width, first + width + 1 }) {
+            if (Utilities.isEmptyItem(matrix[slot]) || !alloy.equals(AlloyUtils.getAlloyFromItem(matrix[slot]))) {
+                return null;
+            }
+        }
+        return alloy;
+    }
+
+    /**
+     * Determines the result of combining the Alloys in the given crafting matrix.
+     *
+     * @param matrix The crafting matrix, which must be square.
+     * @return Returns a new upgraded Alloy item, or null if the matrix isn't a combination of a known recipe's Alloy.
+     */
+    public @Nullable ItemStack getCombinationResult(final ItemStack[] matrix) {
+        final Alloy alloy = getCombinedAlloy(matrix);
+        if (alloy == null) {
+            return null;
+        }
+        final RecipeSnapshot snapshot = Config.getRecipeSnapshot();
+        final Alloy upgraded = snapshot.getAlloys().get(alloy.recipe(), alloy.quality().upgrade());
+        return upgraded == null ? null : snapshot.getAlloyItems().newAlloyItem(upgraded);
     }
 
     /**
-     * Clears all generated combinations.
+     * Removes one item from each filled slot of the given crafting matrix, as crafting would.
+     *
+     * @param matrix The crafting matrix to consume from, which is modified in place.
      */
-    public void clearCombinations() {
-        RECIPES.forEach(RecipeManager::removeRecipe);
-        RECIPES.clear();
-        counter = 0;
+    public void consumeCombination(final ItemStack[] matrix) {
+        for (int i = 0; i < matrix.length; i++) {
+            final ItemStack item = matrix[i];
+            if (Utilities.isEmptyItem(item)) {
+                continue;
+            }
+            if (item.getAmount() > 1) {
+                item.setAmount(item.getAmount() - 1);
+            }
+            else {
+                matrix[i] = null;
+            }
+        }
     }
 
 }
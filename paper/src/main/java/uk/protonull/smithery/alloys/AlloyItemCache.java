@@ -0,0 +1,98 @@
+package uk.protonull.smithery.alloys;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.protonull.smithery.forge.ForgeRecipe;
+
+/**
+ * Prototypes of every recipe's Alloy and Molten Alloy items, and of slag, built once with each recipe snapshot. The
+ * prototypes are never handed out: callers get clones, which they're free to modify.
+ */
+public final class AlloyItemCache {
+
+    private final Map<String, Prototypes> bySlug;
+    private final ItemStack slag;
+    private final ItemStack moltenSlag;
+
+    /**
+     * @param recipe The recipe the prototypes were built from.
+     * @param alloys The recipe's Alloy items, indexed by quality ordinal.
+     * @param molten The recipe's Molten Alloy items, indexed by quality ordinal.
+     */
+    private record Prototypes(@NotNull ForgeRecipe recipe,
+                              ItemStack[] alloys,
+                              ItemStack[] molten) {
+    }
+
+    /**
+     * @param recipes The recipes to build item prototypes for.
+     * @param table The canonical Alloys of those recipes.
+     */
+    public AlloyItemCache(final @NotNull Collection<ForgeRecipe> recipes,
+                          final @NotNull AlloyTable table) {
+        final AlloyQuality[] qualities = AlloyQuality.values();
+        final var bySlug = new HashMap<String, Prototypes>(recipes.size());
+        for (final ForgeRecipe recipe : recipes) {
+            final var alloys = new ItemStack[qualities.length];
+            final var molten = new ItemStack[qualities.length];
+            for (final AlloyQuality quality : qualities) {
+                alloys[quality.ordinal()] = AlloyUtils.buildAlloyItem(recipe, quality);
+                molten[quality.ordinal()] = AlloyUtils.buildMoltenAlloy(
+                        Objects.requireNonNull(table.get(recipe.slug(), quality)));
+            }
+            bySlug.put(recipe.slug(), new Prototypes(recipe, alloys, molten));
+        }
+        this.bySlug = Map.copyOf(bySlug);
+        this.slag = AlloyUtils.buildSlagItem();
+        this.moltenSlag = AlloyUtils.buildMoltenAlloy(Alloy.SLAG);
+    }
+
+    /**
+     * @param recipe The recipe of the Alloy.
+     * @param quality The quality of the Alloy.
+     * @return Returns a clone of the Alloy item's prototype, or null if there's no prototype for that exact recipe.
+     */
+    public @Nullable ItemStack newAlloyItem(final @NotNull ForgeRecipe recipe,
+                                            final @NotNull AlloyQuality quality) {
+        final Prototypes prototypes = this.bySlug.get(recipe.slug());
+        // A recipe from another snapshot may have a different name or yield
+        if (prototypes == null || prototypes.recipe() != recipe) {
+            return null;
+        }
+        return prototypes.alloys()[quality.ordinal()].clone();
+    }
+
+    /**
+     * @param alloy The Alloy, which must not be slag.
+     * @return Returns a clone of the Alloy item's prototype, or null if the Alloy's recipe isn't known.
+     */
+    public @Nullable ItemStack newAlloyItem(final @NotNull Alloy alloy) {
+        final Prototypes prototypes = this.bySlug.get(alloy.recipe());
+        return prototypes == null ? null : prototypes.alloys()[alloy.quality().ordinal()].clone();
+    }
+
+    /**
+     * @param alloy The Alloy of the Molten Alloy.
+     * @return Returns a clone of the Molten Alloy item's prototype, or null if the Alloy's recipe isn't known.
+     */
+    public @Nullable ItemStack newMoltenAlloy(final @NotNull Alloy alloy) {
+        if (alloy.isSlag()) {
+            return this.moltenSlag.clone();
+        }
+        final Prototypes prototypes = this.bySlug.get(alloy.recipe());
+        return prototypes == null ? null : prototypes.molten()[alloy.quality().ordinal()].clone();
+    }
+
+    /**
+     * @return Returns a clone of the slag item's prototype.
+     */
+    public @NotNull ItemStack newSlagItem() {
+        return this.slag.clone();
+    }
+
+}
@@ -1,9 +1,24 @@
 package uk.protonull.smithery.alloys;
 
+import io.papermc.paper.event.server.ServerResourcesReloadedEvent;
+import java.util.Map;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.FurnaceBurnEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.event.inventory.PrepareItemCraftEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.event.server.PluginEnableEvent;
+import org.bukkit.event.server.ServerLoadEvent;
+import org.bukkit.inventory.CraftingInventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.inventory.Recipe;
 import uk.protonull.smithery.utilities.Utilities;
 
@@ -21,6 +36,117 @@ public final class AlloyListener implements Listener {
         }
     }
 
+    @EventHandler(priority = EventPriority.HIGH)
+    public void previewAlloyCombination(final PrepareItemCraftEvent event) {
+        final CraftingInventory inventory = event.getInventory();
+        final ItemStack result = AlloyCombinations.getCombinationResult(inventory.getMatrix());
+        if (result != null) {
+            inventory.setResult(result);
+        }
+    }
+
+    /**
+     * Combinations aren't backed by a registered recipe, so taking the result is handled here: vanilla would otherwise
+     * hand the ingredients straight back as remainders.
+     */
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void craftAlloyCombination(final InventoryClickEvent event) {
+        if (event.getSlotType() != InventoryType.SlotType.RESULT
+                || !(event.getClickedInventory() instanceof final CraftingInventory inventory)) {
+            return;
+        }
+        final ItemStack[] matrix = inventory.getMatrix();
+        ItemStack result = AlloyCombinations.getCombinationResult(matrix);
+        if (result == null) {
+            return;
+        }
+        event.setCancelled(true);
+        final HumanEntity crafter = event.getWhoClicked();
+        switch (event.getClick()) {
+            case LEFT, RIGHT -> {
+                final ItemStack cursor = crafter.getItemOnCursor();
+                if (Utilities.isEmptyItem(cursor)) {
+                    crafter.setItemOnCursor(result);
+                }
+                else if (cursor.isSimilar(result)
+                        && cursor.getAmount() + result.getAmount() <= cursor.getMaxStackSize()) {
+                    cursor.setAmount(cursor.getAmount() + result.getAmount());
+                    crafter.setItemOnCursor(cursor);
+                }
+                else {
+                    return;
+                }
+                AlloyCombinations.consumeCombination(matrix);
+            }
+            case SHIFT_LEFT, SHIFT_RIGHT -> {
+                final PlayerInventory crafterInventory = crafter.getInventory();
+                while (result != null) {
+                    final Map<Integer, ItemStack> leftover = crafterInventory.addItem(result.clone());
+                    if (!leftover.isEmpty()) {
+                        // Take back whatever did fit, since the ingredients won't be consumed
+                        final int added = result.getAmount() - leftover.values().iterator().next().getAmount();
+                        if (added > 0) {
+                            crafterInventory.removeItem(result.asQuantity(added));
+                        }
+                        break;
+                    }
+                    AlloyCombinations.consumeCombination(matrix);
+                    result = AlloyCombinations.getCombinationResult(matrix);
+                }
+            }
+            default -> {
+                return;
+            }
+        }
+        inventory.setMatrix(matrix);
+        inventory.setResult(AlloyCombinations.getCombinationResult(matrix));
+        if (crafter instanceof final Player player) {
+            player.updateInventory();
+        }
+    }
+
+    /**
+     * Alloys made before the compact encoding don't stack with newer alloys, so they're rewritten as players come
+     * across them.
+     */
+    @EventHandler
+    public void upgradeLegacyAlloysOnJoin(final PlayerJoinEvent event) {
+        final Player player = event.getPlayer();
+        if (AlloyUtils.upgradeLegacyAlloys(player.getInventory())
+                + AlloyUtils.upgradeLegacyAlloys(player.getEnderChest()) > 0) {
+            player.updateInventory();
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void upgradeLegacyAlloysOnOpen(final InventoryOpenEvent event) {
+        AlloyUtils.upgradeLegacyAlloys(event.getInventory());
+    }
+
+    /**
+     * Other plugins usually register their crafting recipes as they're enabled, which is after Smithery if they load
+     * after it, and the server re-registers every recipe when its data packs are reloaded.
+     */
+    @EventHandler
+    public void refreshRecipeFlagsOnServerLoad(final ServerLoadEvent event) {
+        AlloyUtils.refreshRecipeFlags();
+    }
+
+    @EventHandler
+    public void refreshRecipeFlagsOnResourceReload(final ServerResourcesReloadedEvent event) {
+        AlloyUtils.refreshRecipeFlags();
+    }
+
+    @EventHandler
+    public void clearRecipeFlagsOnPluginEnable(final PluginEnableEvent event) {
+        AlloyUtils.clearRecipeFlags();
+    }
+
+    @EventHandler
+    public void clearRecipeFlagsOnPluginDisable(final PluginDisableEvent event) {
+        AlloyUtils.clearRecipeFlags();
+    }
+
     @EventHandler(ignoreCancelled = true)
     public void preventAlloysBeingUsedAsFuel(final FurnaceBurnEvent event) {
         if (AlloyUtils.isItemAnAlloy(event.getFuel())) {
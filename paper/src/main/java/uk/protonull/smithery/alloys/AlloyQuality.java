@@ -2,6 +2,9 @@ package uk.protonull.smithery.alloys;
 
 import org.jetbrains.annotations.NotNull;
 
+/**
+ * Alloy qualities, from best to worst. Alloys are persisted by ordinal, so only ever add new qualities to the end.
+ */
 public enum AlloyQuality {
     BEST,
     GOOD,
@@ -0,0 +1,94 @@
+package uk.protonull.smithery.alloys;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectMaps;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.protonull.smithery.forge.ForgeRecipe;
+
+/**
+ * An immutable table of canonical Alloys: one for each quality of each recipe, plus slag. A new table is built with
+ * each recipe snapshot, reusing the previous table's Alloys for recipes that still exist, so that an Alloy held
+ * across a reload is still the canonical instance.
+ */
+public final class AlloyTable {
+
+    /**
+     * The table to use before any recipes have been loaded.
+     */
+    public static final AlloyTable EMPTY = new AlloyTable(List.of(), null);
+
+    /**
+     * Canonical Alloys keyed by recipe slug, indexed by quality ordinal.
+     */
+    private final Map<String, Alloy[]> bySlug;
+    private final Map<String, Alloy> byKey;
+
+    /**
+     * @param recipes The recipes to create Alloys for.
+     * @param previous The table to reuse Alloys from, if any.
+     */
+    public AlloyTable(final @NotNull Collection<ForgeRecipe> recipes,
+                      final @Nullable AlloyTable previous) {
+        final AlloyQuality[] qualities = AlloyQuality.values();
+        final var bySlug = new Object2ObjectOpenHashMap<String, Alloy[]>(recipes.size() + 1);
+        final var byKey = new Object2ObjectOpenHashMap<String, Alloy>((recipes.size() + 1) * qualities.length);
+        bySlug.put(Alloy.SLAG.recipe(), reuseOrCreate(previous, Alloy.SLAG.recipe(), qualities));
+        for (final ForgeRecipe recipe : recipes) {
+            bySlug.put(recipe.slug(), reuseOrCreate(previous, recipe.slug(), qualities));
+        }
+        for (final Alloy[] alloys : bySlug.values()) {
+            for (final Alloy alloy : alloys) {
+                byKey.put(alloy.generateKey(), alloy);
+            }
+        }
+        this.bySlug = Object2ObjectMaps.unmodifiable(bySlug);
+        this.byKey = Object2ObjectMaps.unmodifiable(byKey);
+    }
+
+    private static Alloy[] reuseOrCreate(final @Nullable AlloyTable previous,
+                                         final @NotNull String slug,
+                                         final AlloyQuality[] qualities) {
+        final Alloy[] existing = previous == null ? null : previous.bySlug.get(slug);
+        if (existing != null) {
+            return existing;
+        }
+        final var alloys = new Alloy[qualities.length];
+        for (final AlloyQuality quality : qualities) {
+            alloys[quality.ordinal()] = quality.isBest() && slug.equals(Alloy.SLAG.recipe())
+                    ? Alloy.SLAG
+                    : Alloy.create(slug, quality);
+        }
+        return alloys;
+    }
+
+    /**
+     * @param recipe The recipe slug, which must already be upper-case, as recipe slugs are.
+     * @param quality The quality of the Alloy.
+     * @return Returns the canonical Alloy, or null if the recipe isn't known.
+     */
+    public @Nullable Alloy get(final @NotNull String recipe,
+                               final @NotNull AlloyQuality quality) {
+        final Alloy[] alloys = this.bySlug.get(recipe);
+        return alloys == null ? null : alloys[quality.ordinal()];
+    }
+
+    /**
+     * @param key The Alloy's key, as per {@link Alloy#generateKey()}, which must already be upper-case.
+     * @return Returns the canonical Alloy, or null if the key isn't known.
+     */
+    public @Nullable Alloy fromKey(final @NotNull String key) {
+        return this.byKey.get(key);
+    }
+
+    /**
+     * @return Returns how many canonical Alloys this table holds.
+     */
+    public int size() {
+        return this.byKey.size();
+    }
+
+}
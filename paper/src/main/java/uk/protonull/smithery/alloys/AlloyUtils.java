@@ -1,37 +1,93 @@
 package uk.protonull.smithery.alloys;
 
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
 import lombok.experimental.UtilityClass;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
-import org.apache.commons.collections4.CollectionUtils;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
 import org.apache.commons.collections4.IterableUtils;
-import org.apache.commons.collections4.MapUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.Keyed;
 import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.CraftingInventory;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.Recipe;
 import org.bukkit.inventory.ShapedRecipe;
 import org.bukkit.inventory.ShapelessRecipe;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import uk.protonull.smithery.config.Config;
 import uk.protonull.smithery.forge.ForgeRecipe;
-import uk.protonull.smithery.utilities.AmountMap;
+import uk.protonull.smithery.utilities.IntAmountMap;
+import uk.protonull.smithery.utilities.Utilities;
 import vg.civcraft.mc.civmodcore.inventory.items.MetaUtils;
 
 @UtilityClass
 public class AlloyUtils {
 
+    public final Material ALLOY_MATERIAL = Material.STICK;
+
+    /**
+     * Where CraftBukkit stores an item's persistent data within the item's NBT.
+     */
+    private final String BUKKIT_VALUES_KEY = "PublicBukkitValues";
+    private final String ALLOY_NBT_KEY = Alloy.PDC_KEY.toString();
+
+    /**
+     * @param material The material to check.
+     * @return Returns whether an item of the given material could be an alloy, molten or otherwise.
+     */
+    public boolean canBeAlloy(final @NotNull Material material) {
+        return material == ALLOY_MATERIAL || material == MOLTEN_ALLOY_MATERIAL;
+    }
+
     /**
      * @param item The item to check.
      * @return Returns whether the given item is an alloy.
      */
     public boolean isItemAnAlloy(final ItemStack item) {
-        return item != null && getAlloyFromItem(item.getItemMeta()) != null;
+        return getAlloyFromItem(item) != null;
+    }
+
+    /**
+     * Retrieves the alloy from an item. Items whose material cannot be an alloy are rejected outright, and the alloy
+     * is read straight from the item's NBT where possible, since {@link ItemStack#getItemMeta()} clones the meta.
+     *
+     * @param item The item to get the alloy from.
+     * @return Returns the item's alloy. You can infer from a null that the item was not an alloy.
+     */
+    public @Nullable Alloy getAlloyFromItem(final ItemStack item) {
+        if (item == null || !canBeAlloy(item.getType())) {
+            return null;
+        }
+        final net.minecraft.world.item.ItemStack handle = Utilities.getHandle(item);
+        if (handle == null) {
+            return getAlloyFromItem(item.getItemMeta());
+        }
+        return getAlloyFromNBT(handle.getTag());
+    }
+
+    /**
+     * Retrieves the alloy from an item's raw NBT, which is how {@link #getAlloyFromItem(ItemStack)} reads alloys.
+     *
+     * @param nbt The item's NBT, if it has any.
+     * @return Returns the item's alloy. You can infer from a null that the item was not an alloy.
+     */
+    public @Nullable Alloy getAlloyFromNBT(final @Nullable CompoundTag nbt) {
+        if (nbt == null || !(nbt.get(BUKKIT_VALUES_KEY) instanceof final CompoundTag values)) {
+            return null;
+        }
+        final Tag alloy = values.get(ALLOY_NBT_KEY);
+        return alloy == null ? null : Alloy.fromNBT(alloy);
     }
 
     /**
@@ -39,7 +95,73 @@ public class AlloyUtils {
      * @return Returns the item's alloy. You can infer from a null that the item was not an alloy.
      */
     public @Nullable Alloy getAlloyFromItem(final @NotNull ItemMeta meta) {
-        return meta.getPersistentDataContainer().get(Alloy.PDC_KEY, Alloy.TYPE);
+        final PersistentDataContainer pdc = meta.getPersistentDataContainer();
+        if (pdc.has(Alloy.PDC_KEY, PersistentDataType.BYTE_ARRAY)) {
+            return Alloy.decode(pdc.get(Alloy.PDC_KEY, PersistentDataType.BYTE_ARRAY));
+        }
+        if (pdc.has(Alloy.PDC_KEY, PersistentDataType.TAG_CONTAINER)) {
+            return pdc.get(Alloy.PDC_KEY, Alloy.LEGACY_TYPE);
+        }
+        return null;
+    }
+
+    /**
+     * Rewrites an item's alloy from the legacy nested container, see {@link Alloy#LEGACY_TYPE}, to the compact
+     * encoding, so that it stacks with newer alloys. Items that aren't legacy alloys are left alone.
+     *
+     * @param item The item to rewrite, which is modified in place.
+     * @return Returns true if the item was rewritten.
+     */
+    public boolean upgradeLegacyAlloy(final ItemStack item) {
+        if (item == null || !canBeAlloy(item.getType())) {
+            return false;
+        }
+        final net.minecraft.world.item.ItemStack handle = Utilities.getHandle(item);
+        if (handle == null) {
+            final ItemMeta meta = item.getItemMeta();
+            final PersistentDataContainer pdc = meta == null ? null : meta.getPersistentDataContainer();
+            if (pdc == null || !pdc.has(Alloy.PDC_KEY, PersistentDataType.TAG_CONTAINER)) {
+                return false;
+            }
+            final Alloy alloy;
+            try {
+                alloy = pdc.get(Alloy.PDC_KEY, Alloy.LEGACY_TYPE);
+            }
+            catch (final IllegalArgumentException ignored) { // Legacy alloy without a recipe
+                return false;
+            }
+            setAlloyToItem(meta, alloy);
+            item.setItemMeta(meta);
+            return true;
+        }
+        final CompoundTag nbt = handle.getTag();
+        if (nbt == null
+                || !(nbt.get(BUKKIT_VALUES_KEY) instanceof final CompoundTag values)
+                || !(values.get(ALLOY_NBT_KEY) instanceof final CompoundTag legacy)) {
+            return false;
+        }
+        final Alloy alloy = Alloy.fromNBT(legacy);
+        if (alloy == null) {
+            return false;
+        }
+        values.putByteArray(ALLOY_NBT_KEY, alloy.encode());
+        return true;
+    }
+
+    /**
+     * Rewrites every legacy alloy within an inventory, see {@link #upgradeLegacyAlloy(ItemStack)}.
+     *
+     * @param inventory The inventory to rewrite the alloys of.
+     * @return Returns how many stacks were rewritten.
+     */
+    public int upgradeLegacyAlloys(final @NotNull Inventory inventory) {
+        int upgraded = 0;
+        for (final ItemStack item : inventory.getContents()) {
+            if (upgradeLegacyAlloy(item)) {
+                upgraded++;
+            }
+        }
+        return upgraded;
     }
 
     /**
@@ -57,7 +179,7 @@ public class AlloyUtils {
      * @return Returns a new alloy template item.
      */
     public @NotNull ItemStack newAlloyItem(final @NotNull Alloy alloy) {
-        final var item = new ItemStack(Material.STICK);
+        final var item = new ItemStack(ALLOY_MATERIAL);
         item.editMeta((final ItemMeta meta) -> {
             setAlloyToItem(meta, alloy);
             MetaUtils.addGlow(meta);
@@ -65,9 +187,23 @@ public class AlloyUtils {
         return item;
     }
 
+    /**
+     * @param recipe The recipe of the Alloy.
+     * @param quality The quality of the Alloy.
+     * @return Returns a new Alloy item, cloned from the current snapshot's prototype where possible.
+     */
     public @NotNull ItemStack createAlloyFromRecipe(final @NotNull ForgeRecipe recipe,
                                                     final @NotNull AlloyQuality quality) {
-        final ItemStack item = newAlloyItem(new Alloy(recipe.slug(), quality));
+        final ItemStack cached = Config.getRecipeSnapshot().getAlloyItems().newAlloyItem(recipe, quality);
+        return cached != null ? cached : buildAlloyItem(recipe, quality);
+    }
+
+    /**
+     * Builds an Alloy item from scratch. Use {@link #createAlloyFromRecipe(ForgeRecipe, AlloyQuality)} instead.
+     */
+    @NotNull ItemStack buildAlloyItem(final @NotNull ForgeRecipe recipe,
+                                      final @NotNull AlloyQuality quality) {
+        final ItemStack item = newAlloyItem(Alloy.of(recipe.slug(), quality));
         item.editMeta((final ItemMeta meta) -> {
             meta.displayName(Component.text()
                     .decoration(TextDecoration.ITALIC, TextDecoration.State.FALSE)
@@ -93,41 +229,17 @@ public class AlloyUtils {
         return item;
     }
 
-    public @NotNull Alloy createAlloyFromIngredients(final @NotNull AmountMap<String> ingredients,
+    /**
+     * Evaluates what Alloy the given ingredients would produce, as per the current
+     * {@link Config#getRecipeSnapshot() recipe snapshot}.
+     *
+     * @param ingredients The Forge's ingredients.
+     * @param timeSpentSmelting How long, in milliseconds, the ingredients have been smelting.
+     * @return Returns the resulting Alloy, which may be slag.
+     */
+    public @NotNull Alloy createAlloyFromIngredients(final @NotNull IntAmountMap ingredients,
                                                      final long timeSpentSmelting) {
-        if (MapUtils.isEmpty(ingredients)) {
-            return Alloy.SLAG;
-        }
-        final ForgeRecipe matchedRecipe = IterableUtils.find(Config.RECIPES.get(), (final ForgeRecipe recipe) ->
-                CollectionUtils.isEqualCollection(ingredients.keySet(), recipe.ingredients().keySet()));
-        if (matchedRecipe == null) {
-            return Alloy.SLAG;
-        }
-        if (ThreadLocalRandom.current().nextDouble(1d, 100d) <= matchedRecipe.failChance()) {
-            return Alloy.SLAG;
-        }
-        final boolean amountsMatch = IterableUtils.matchesAll(ingredients.keySet(),
-                (final String key) -> ingredients.getInt(key) == matchedRecipe.ingredients().getInt(key));
-        AlloyQuality quality = AlloyQuality.BEST;
-        if (Config.HINTS_ENABLED.get()) {
-            // Ingredient Amounts
-            if (!amountsMatch) {
-                quality = quality.downgrade();
-            }
-            // Smelting time
-            if (timeSpentSmelting < (matchedRecipe.cookTime() * 0.8d) || timeSpentSmelting > (matchedRecipe.cookTime() * 1.5d)) {
-                return Alloy.SLAG;
-            }
-            if (timeSpentSmelting < (matchedRecipe.cookTime() * 0.9d) || timeSpentSmelting > (matchedRecipe.cookTime() * 1.3d)) {
-                quality = quality.downgrade();
-            }
-        }
-        else if (!amountsMatch
-                || timeSpentSmelting < (matchedRecipe.cookTime() * 0.9d)
-                || timeSpentSmelting > (matchedRecipe.cookTime() * 1.3d)) {
-            return Alloy.SLAG;
-        }
-        return new Alloy(matchedRecipe.slug(), quality);
+        return Config.getRecipeSnapshot().getEvaluator().evaluate(ingredients, timeSpentSmelting);
     }
 
     // ------------------------------------------------------------
@@ -141,16 +253,69 @@ public class AlloyUtils {
      * @return Returns true if the matrix contains Alloys.
      */
     public boolean doesMatrixContainAlloys(final @NotNull CraftingInventory inventory) {
-        return IterableUtils.matchesAny(List.of(inventory.getMatrix()), AlloyUtils::isItemAnAlloy);
+        for (final ItemStack item : inventory.getMatrix()) {
+            if (isItemAnAlloy(item)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether each registered recipe defines Alloy ingredients, keyed by the recipe's key. Recipes registered after the
+     * last refresh are added on first use.
+     */
+    private final Object2ObjectOpenHashMap<NamespacedKey, Boolean> RECIPE_FLAGS = new Object2ObjectOpenHashMap<>();
+
+    /**
+     * Recomputes whether each registered recipe defines Alloy ingredients. Use this whenever recipes may have been
+     * registered, removed or replaced, such as once the server has started or when Smithery is reloaded.
+     *
+     * @return Returns how many registered recipes define Alloy ingredients.
+     */
+    public int refreshRecipeFlags() {
+        RECIPE_FLAGS.clear();
+        int alloyRecipes = 0;
+        for (final Iterator<Recipe> iterator = Bukkit.recipeIterator(); iterator.hasNext();) {
+            if (iterator.next() instanceof final Keyed keyed) {
+                final boolean definesAlloyIngredients = computeRecipeFlag((Recipe) keyed);
+                RECIPE_FLAGS.put(keyed.getKey(), Boolean.valueOf(definesAlloyIngredients));
+                if (definesAlloyIngredients) {
+                    alloyRecipes++;
+                }
+            }
+        }
+        return alloyRecipes;
     }
 
     /**
-     * Determines whether a recipe defines Alloy ingredients.
+     * Clears the precomputed recipe flags, so that each is recomputed on first use.
+     */
+    public void clearRecipeFlags() {
+        RECIPE_FLAGS.clear();
+    }
+
+    /**
+     * Determines whether a recipe defines Alloy ingredients. This is precomputed for keyed recipes, see
+     * {@link #refreshRecipeFlags()}.
      *
      * @param recipe The recipe to check.
      * @return Returns true if the recipe defines Alloy ingredients.
      */
     public boolean doesRecipeDefineAlloyIngredients(final @NotNull Recipe recipe) {
+        if (!(recipe instanceof final Keyed keyed)) {
+            return computeRecipeFlag(recipe);
+        }
+        final Boolean flag = RECIPE_FLAGS.get(keyed.getKey());
+        if (flag != null) {
+            return flag;
+        }
+        final boolean definesAlloyIngredients = computeRecipeFlag(recipe);
+        RECIPE_FLAGS.put(keyed.getKey(), Boolean.valueOf(definesAlloyIngredients));
+        return definesAlloyIngredients;
+    }
+
+    private boolean computeRecipeFlag(final @NotNull Recipe recipe) {
         if (recipe instanceof final ShapedRecipe shapedRecipe) {
             return IterableUtils.matchesAny(shapedRecipe.getIngredientMap().values(), AlloyUtils::isItemAnAlloy);
         }
@@ -167,9 +332,17 @@ public class AlloyUtils {
     public final Material MOLTEN_ALLOY_MATERIAL = Material.LAVA_BUCKET;
 
     /**
-     * @return Returns a new Alloy template item.
+     * @return Returns a new Molten Alloy item, cloned from the current snapshot's prototype where possible.
      */
     public @NotNull ItemStack newMoltenAlloy(final @NotNull Alloy alloy) {
+        final ItemStack cached = Config.getRecipeSnapshot().getAlloyItems().newMoltenAlloy(alloy);
+        return cached != null ? cached : buildMoltenAlloy(alloy);
+    }
+
+    /**
+     * Builds a Molten Alloy item from scratch. Use {@link #newMoltenAlloy(Alloy)} instead.
+     */
+    @NotNull ItemStack buildMoltenAlloy(final @NotNull Alloy alloy) {
         final var item = new ItemStack(MOLTEN_ALLOY_MATERIAL);
         item.editMeta((final ItemMeta meta) -> {
             setAlloyToItem(meta, alloy);
@@ -192,7 +365,7 @@ public class AlloyUtils {
      * @return Returns an Alloy value, or null.
      */
     public @Nullable Alloy getMoltenAlloy(final ItemStack item) {
-        return item == null || item.getType() != MOLTEN_ALLOY_MATERIAL ? null : getAlloyFromItem(item.getItemMeta());
+        return item == null || item.getType() != MOLTEN_ALLOY_MATERIAL ? null : getAlloyFromItem(item);
     }
 
     // ------------------------------------------------------------
@@ -200,9 +373,16 @@ public class AlloyUtils {
     // ------------------------------------------------------------
 
     /**
-     * @return Returns a new slag item.
+     * @return Returns a new slag item, cloned from the current snapshot's prototype.
      */
     public @NotNull ItemStack newSlagItem() {
+        return Config.getRecipeSnapshot().getAlloyItems().newSlagItem();
+    }
+
+    /**
+     * Builds a slag item from scratch. Use {@link #newSlagItem()} instead.
+     */
+    @NotNull ItemStack buildSlagItem() {
         final ItemStack item = newAlloyItem(Alloy.SLAG);
         item.editMeta((final ItemMeta meta) -> {
             meta.displayName(Component.text()
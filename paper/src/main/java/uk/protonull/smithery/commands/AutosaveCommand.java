@@ -0,0 +1,49 @@
+package uk.protonull.smithery.commands;
+
+import co.aikar.commands.BaseCommand;
+import co.aikar.commands.annotation.CommandAlias;
+import co.aikar.commands.annotation.CommandPermission;
+import co.aikar.commands.annotation.Description;
+import co.aikar.commands.annotation.Subcommand;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+import uk.protonull.smithery.Smithery;
+import uk.protonull.smithery.forge.ForgeAutosaver;
+import uk.protonull.smithery.forge.ForgeManager;
+
+@CommandAlias(CommandRegistrar.ROOT_COMMAND_ALIAS)
+public final class AutosaveCommand extends BaseCommand {
+
+    @Subcommand("autosave")
+    @Description("Shows the Forge autosaver's progress")
+    @CommandPermission(CommandRegistrar.ADMIN_PERMISSION)
+    public void showProgress(final CommandSender sender) {
+        sender.sendMessage(ChatColor.GOLD + "Forge autosaver:");
+        sender.sendMessage(ChatColor.YELLOW + " Loaded Forges: " + ChatColor.AQUA + ForgeManager.getForgeCount());
+        sender.sendMessage(ChatColor.YELLOW + " Dirty queue: " + ChatColor.AQUA + ForgeManager.getDirtyForgeCount());
+        sender.sendMessage(ChatColor.YELLOW + " Writes: " + ChatColor.AQUA + ForgeManager.getWriteCount()
+                + ChatColor.YELLOW + " (skipped " + ChatColor.AQUA + ForgeManager.getSkippedWriteCount()
+                + ChatColor.YELLOW + " unchanged)");
+        final ForgeAutosaver autosaver = Smithery.getInstance().getAutosaver();
+        if (autosaver == null || !autosaver.isEnabled()) {
+            sender.sendMessage(ChatColor.YELLOW + " Autosaving is " + ChatColor.RED + "disabled");
+            return;
+        }
+        if (autosaver.isPassRunning()) {
+            sender.sendMessage(ChatColor.YELLOW + " Current pass: " + ChatColor.AQUA + autosaver.getCurrentPassSaved()
+                    + ChatColor.YELLOW + " saved over " + ChatColor.AQUA + autosaver.getCurrentPassTicks()
+                    + ChatColor.YELLOW + " ticks, " + ChatColor.AQUA + autosaver.getCurrentPassRemaining()
+                    + ChatColor.YELLOW + " remaining");
+        }
+        else {
+            sender.sendMessage(ChatColor.YELLOW + " Next pass: " + ChatColor.AQUA
+                    + (autosaver.getTicksUntilNextPass() / 20L) + ChatColor.YELLOW + " seconds"
+                    + (autosaver.isFlushingWithWorldSaves() ? ", or on the next world save" : ""));
+        }
+        sender.sendMessage(ChatColor.YELLOW + " Last pass: " + ChatColor.AQUA + autosaver.getLastPassSaved()
+                + ChatColor.YELLOW + " saved over " + ChatColor.AQUA + autosaver.getLastPassTicks()
+                + ChatColor.YELLOW + " ticks (" + ChatColor.AQUA + autosaver.getCompletedPasses()
+                + ChatColor.YELLOW + " passes total)");
+    }
+
+}
@@ -1,7 +1,10 @@
 package uk.protonull.smithery.commands;
 
+import co.aikar.commands.BukkitCommandCompletionContext;
+import co.aikar.commands.CommandCompletions;
 import org.jetbrains.annotations.NotNull;
 import uk.protonull.smithery.Smithery;
+import uk.protonull.smithery.config.Config;
 import vg.civcraft.mc.civmodcore.commands.CommandManager;
 
 public final class CommandRegistrar extends CommandManager {
@@ -17,9 +20,24 @@ public final class CommandRegistrar extends CommandManager {
     @Override
     public void registerCommands() {
         enableUnstableAPI("help"); // Deprecated/Beta
+        registerCommand(new AutosaveCommand());
+        registerCommand(new DiagnoseCommand());
         registerCommand(new GiveForgeCommand());
         registerCommand(new HelpCommand());
+        registerCommand(new IngredientUsesCommand());
         registerCommand(new ListRecipesCommand());
+        registerCommand(new RecipeCostCommand());
+        registerCommand(new ReloadCommand());
+    }
+
+    @Override
+    public void registerCompletions(final @NotNull CommandCompletions<BukkitCommandCompletionContext> completions) {
+        super.registerCompletions(completions);
+        // Recipe snapshots are immutable, so these can be completed off the main thread
+        completions.registerAsyncCompletion("recipes",
+                (context) -> Config.getRecipeSnapshot().getBook().completeSlugs(context.getInput()));
+        completions.registerAsyncCompletion("ingredients",
+                (context) -> Config.getRecipeSnapshot().getBook().completeIngredients(context.getInput()));
     }
 
     @Override
@@ -0,0 +1,114 @@
+package uk.protonull.smithery.commands;
+
+import co.aikar.commands.BaseCommand;
+import co.aikar.commands.InvalidCommandArgument;
+import co.aikar.commands.annotation.CommandAlias;
+import co.aikar.commands.annotation.CommandPermission;
+import co.aikar.commands.annotation.Description;
+import co.aikar.commands.annotation.Subcommand;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMaps;
+import java.util.ArrayList;
+import java.util.List;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import uk.protonull.smithery.config.Config;
+import uk.protonull.smithery.forge.Forge;
+import uk.protonull.smithery.forge.ForgeManager;
+import uk.protonull.smithery.forge.ForgeMatch;
+import uk.protonull.smithery.forge.ForgeRecipe;
+import uk.protonull.smithery.forge.RecipeSimilarityIndex;
+import uk.protonull.smithery.utilities.IngredientRegistry;
+import uk.protonull.smithery.utilities.IntAmountMap;
+
+@CommandAlias(CommandRegistrar.ROOT_COMMAND_ALIAS)
+public final class DiagnoseCommand extends BaseCommand {
+
+    private static final int MAX_DISTANCE = 5;
+    private static final int NEAREST_LIMIT = 5;
+
+    @Subcommand("diagnose")
+    @Description("Shows what the Forge you're looking at is forming, and which recipes its ingredients are nearest to")
+    @CommandPermission(CommandRegistrar.ADMIN_PERMISSION)
+    public void diagnoseForge(final Player sender) {
+        final Block block = sender.getTargetBlockExact(MAX_DISTANCE);
+        final Forge forge = block == null ? null : ForgeManager.getForge(block);
+        if (forge == null) {
+            throw new InvalidCommandArgument("You must be looking at a Forge!");
+        }
+        final IntAmountMap ingredients = forge.getIngredients();
+        if (ingredients.isEmpty()) {
+            sender.sendMessage(Component.text("That Forge is empty.", NamedTextColor.GOLD));
+            return;
+        }
+        sender.sendMessage(Component.text()
+                .color(NamedTextColor.GOLD)
+                .content("Forge at [" + forge.getLocation() + "] contains: ")
+                .append(Component.text(describe(ingredients), NamedTextColor.AQUA)));
+        final ForgeMatch match = forge.getMatch();
+        if (match.getRecipe() == null) {
+            sender.sendMessage(Component.text("It matches no recipe, so it will produce slag.", NamedTextColor.RED));
+        }
+        else {
+            sender.sendMessage(Component.text()
+                    .color(NamedTextColor.GREEN)
+                    .content("It matches [" + match.getRecipe().getRecipe().slug() + "]")
+                    .append(Component.text(match.doAmountsMatch() ? "." : ", but the amounts differ.")));
+        }
+        final List<RecipeSimilarityIndex.Neighbour> nearest = Config.getRecipeSnapshot()
+                .getSimilarityIndex()
+                .findNearest(ingredients, NEAREST_LIMIT);
+        if (nearest.isEmpty()) {
+            sender.sendMessage(Component.text("No recipe uses any of its ingredients.", NamedTextColor.GRAY));
+            return;
+        }
+        sender.sendMessage(Component.text("Nearest recipes:", NamedTextColor.GOLD));
+        for (final RecipeSimilarityIndex.Neighbour neighbour : nearest) {
+            final ForgeRecipe recipe = neighbour.recipe().getRecipe();
+            final var missing = new IntAmountMap.ArrayMap();
+            for (final Int2IntMap.Entry entry : Int2IntMaps.fastIterable(recipe.ingredients())) {
+                if (!ingredients.containsKey(entry.getIntKey())) {
+                    missing.put(entry.getIntKey(), entry.getIntValue());
+                }
+            }
+            final var extra = new IntAmountMap.ArrayMap();
+            for (final Int2IntMap.Entry entry : Int2IntMaps.fastIterable(ingredients)) {
+                if (!recipe.ingredients().containsKey(entry.getIntKey())) {
+                    extra.put(entry.getIntKey(), entry.getIntValue());
+                }
+            }
+            final var line = Component.text().append(
+                    Component.text(" • "),
+                    Component.text()
+                            .color(NamedTextColor.YELLOW)
+                            .content(recipe.slug())
+                            .hoverEvent(HoverEvent.showText(Component.text(describe(recipe.ingredients())))),
+                    Component.text()
+                            .color(NamedTextColor.AQUA)
+                            .content(" " + Math.round(neighbour.getSimilarity() * 100d) + "%"));
+            if (!missing.isEmpty()) {
+                line.append(Component.text(" missing: " + describe(missing), NamedTextColor.RED));
+            }
+            if (!extra.isEmpty()) {
+                line.append(Component.text(" extra: " + describe(extra), NamedTextColor.RED));
+            }
+            if (neighbour.amountDistance() > 0) {
+                line.append(Component.text(" off by " + neighbour.amountDistance(), NamedTextColor.GRAY));
+            }
+            sender.sendMessage(line);
+        }
+    }
+
+    private static String describe(final IntAmountMap ingredients) {
+        final var parts = new ArrayList<String>(ingredients.size());
+        for (final Int2IntMap.Entry entry : Int2IntMaps.fastIterable(ingredients)) {
+            parts.add(IngredientRegistry.getName(entry.getIntKey()) + "/" + entry.getIntValue());
+        }
+        parts.sort(null);
+        return String.join(", ", parts);
+    }
+
+}
@@ -0,0 +1,76 @@
+package uk.protonull.smithery.commands;
+
+import co.aikar.commands.BaseCommand;
+import co.aikar.commands.InvalidCommandArgument;
+import co.aikar.commands.annotation.CommandAlias;
+import co.aikar.commands.annotation.CommandCompletion;
+import co.aikar.commands.annotation.CommandPermission;
+import co.aikar.commands.annotation.Default;
+import co.aikar.commands.annotation.Description;
+import co.aikar.commands.annotation.Subcommand;
+import co.aikar.commands.annotation.Syntax;
+import java.util.List;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.command.CommandSender;
+import uk.protonull.smithery.config.Config;
+import uk.protonull.smithery.forge.ForgeRecipe;
+import uk.protonull.smithery.forge.RecipeBook;
+import uk.protonull.smithery.utilities.IngredientRegistry;
+
+@CommandAlias(CommandRegistrar.ROOT_COMMAND_ALIAS)
+public final class IngredientUsesCommand extends BaseCommand {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Subcommand("uses")
+    @Description("Lists all Forge recipes that use the given ingredient")
+    @Syntax("<ingredient> [page]")
+    @CommandCompletion("@ingredients")
+    @CommandPermission(CommandRegistrar.ADMIN_PERMISSION)
+    public void listUses(final CommandSender sender,
+                         final String ingredient,
+                         @Default("1") final int page) {
+        final RecipeBook book = Config.getRecipeSnapshot().getBook();
+        final int ingredientID = book.findIngredientID(ingredient);
+        final List<ForgeRecipe> recipes = book.getRecipesUsing(ingredientID);
+        if (recipes.isEmpty()) {
+            sender.sendMessage(Component.text()
+                    .color(NamedTextColor.GOLD)
+                    .content("Forge recipes using [" + ingredient + "]:")
+                    .append(Component.text(" <none>", NamedTextColor.RED)));
+            return;
+        }
+        final int pages = (recipes.size() + PAGE_SIZE - 1) / PAGE_SIZE;
+        if (page < 1 || page > pages) {
+            throw new InvalidCommandArgument("Page must be between 1 and " + pages + "!");
+        }
+        sender.sendMessage(Component.text()
+                .color(NamedTextColor.GOLD)
+                .content("Forge recipes using [" + IngredientRegistry.getName(ingredientID) + "] (page "
+                        + page + "/" + pages + "):"));
+        final int start = (page - 1) * PAGE_SIZE;
+        for (final ForgeRecipe recipe : recipes.subList(start, Math.min(start + PAGE_SIZE, recipes.size()))) {
+            sender.sendMessage(Component.text().append(
+                    Component.text(" • "),
+                    Component.text()
+                            .color(NamedTextColor.YELLOW)
+                            .content(recipe.slug())
+                            .hoverEvent(HoverEvent.showText(Component.text(recipe.name()))),
+                    Component.text()
+                            .color(NamedTextColor.AQUA)
+                            .content(" ×" + recipe.ingredients().get(ingredientID))
+            ));
+        }
+        if (page < pages) {
+            final String nextPage = "/" + CommandRegistrar.ROOT_COMMAND_ALIAS + " uses " + ingredient + " " + (page + 1);
+            sender.sendMessage(Component.text()
+                    .color(NamedTextColor.GRAY)
+                    .content("Use " + nextPage + " to see more.")
+                    .clickEvent(ClickEvent.runCommand(nextPage)));
+        }
+    }
+
+}
@@ -3,10 +3,13 @@ package uk.protonull.smithery.commands;
 import co.aikar.commands.BaseCommand;
 import co.aikar.commands.InvalidCommandArgument;
 import co.aikar.commands.annotation.CommandAlias;
+import co.aikar.commands.annotation.CommandCompletion;
 import co.aikar.commands.annotation.CommandPermission;
 import co.aikar.commands.annotation.Description;
+import co.aikar.commands.annotation.Optional;
 import co.aikar.commands.annotation.Private;
 import co.aikar.commands.annotation.Subcommand;
+import co.aikar.commands.annotation.Syntax;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -25,25 +28,32 @@ import uk.protonull.smithery.alloys.AlloyQuality;
 import uk.protonull.smithery.alloys.AlloyUtils;
 import uk.protonull.smithery.config.Config;
 import uk.protonull.smithery.forge.ForgeRecipe;
+import uk.protonull.smithery.forge.RecipeBook;
 import uk.protonull.smithery.utilities.Utilities;
 
 @CommandAlias(CommandRegistrar.ROOT_COMMAND_ALIAS)
 public final class ListRecipesCommand extends BaseCommand {
 
     @Subcommand("list")
-    @Description("Lists all known Forge recipes")
+    @Description("Lists all known Forge recipes, or only those whose slug begins with the given prefix")
+    @Syntax("[prefix]")
+    @CommandCompletion("@recipes")
     @CommandPermission(CommandRegistrar.ADMIN_PERMISSION)
-    public void listRecipes(final CommandSender sender) {
+    public void listRecipes(final CommandSender sender, @Optional final String prefix) {
+        final RecipeBook book = Config.getRecipeSnapshot().getBook();
+        final List<String> slugs = book.completeSlugs(prefix == null ? "" : prefix);
         TextComponent.Builder response = Component.text()
                 .color(NamedTextColor.GOLD)
-                .content("All known Forge recipes:");
-        if (Config.RECIPES.get().isEmpty()) {
+                .content(prefix == null ? "All known Forge recipes:" : "Forge recipes beginning with [" + prefix + "]:");
+        if (slugs.isEmpty()) {
             response.append(Component.text(" <none>", NamedTextColor.RED));
             sender.sendMessage(response);
             return;
         }
         sender.sendMessage(response);
-        for (final ForgeRecipe recipe : Config.RECIPES.get()) {
+        for (final String slug : slugs) {
+            final ForgeRecipe recipe = book.getRecipe(slug);
+            assert recipe != null;
             response = Component.text();
             response.append(
                     Component.text(" • "),
@@ -103,6 +113,7 @@ public final class ListRecipesCommand extends BaseCommand {
     }
 
     @Subcommand("ADMIN_GENERATE_ALLOY")
+    @CommandCompletion("true|false @recipes")
     @CommandPermission(CommandRegistrar.ADMIN_PERMISSION)
     @Private
     public void generateAlloy(final Player sender,
@@ -117,7 +128,7 @@ public final class ListRecipesCommand extends BaseCommand {
         if (quality == null) {
             throw new InvalidCommandArgument("That quality does not exist!");
         }
-        final Alloy alloy = new Alloy(recipe.slug(), quality);
+        final Alloy alloy = Alloy.of(recipe.slug(), quality);
         if (isFullAlloy) {
             Utilities.giveOrDropItem(sender.getInventory(), AlloyUtils.createAlloyFromRecipe(recipe, quality));
         }
@@ -0,0 +1,66 @@
+package uk.protonull.smithery.commands;
+
+import co.aikar.commands.BaseCommand;
+import co.aikar.commands.InvalidCommandArgument;
+import co.aikar.commands.annotation.CommandAlias;
+import co.aikar.commands.annotation.CommandCompletion;
+import co.aikar.commands.annotation.CommandPermission;
+import co.aikar.commands.annotation.Description;
+import co.aikar.commands.annotation.Subcommand;
+import co.aikar.commands.annotation.Syntax;
+import it.unimi.dsi.fastutil.ints.Int2DoubleMap;
+import it.unimi.dsi.fastutil.ints.Int2DoubleMaps;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+import uk.protonull.smithery.alloys.AlloyQuality;
+import uk.protonull.smithery.config.Config;
+import uk.protonull.smithery.config.RecipeSnapshot;
+import uk.protonull.smithery.forge.ForgeRecipe;
+import uk.protonull.smithery.forge.RecipeGraph;
+import uk.protonull.smithery.utilities.IngredientRegistry;
+
+@CommandAlias(CommandRegistrar.ROOT_COMMAND_ALIAS)
+public final class RecipeCostCommand extends BaseCommand {
+
+    @Subcommand("cost")
+    @Description("Shows the raw materials and cook time needed to produce a single unit of a recipe's Alloy")
+    @Syntax("<recipe>")
+    @CommandCompletion("@recipes")
+    @CommandPermission(CommandRegistrar.ADMIN_PERMISSION)
+    public void showCost(final CommandSender sender,
+                         final String recipeSlug) {
+        final RecipeSnapshot snapshot = Config.getRecipeSnapshot();
+        final ForgeRecipe recipe = snapshot.getRecipe(recipeSlug);
+        if (recipe == null) {
+            throw new InvalidCommandArgument("That recipe does not exist!");
+        }
+        final RecipeGraph graph = snapshot.getGraph();
+        final RecipeGraph.RecipeCost cost = graph.getCost(recipe.slug());
+        if (cost == null) {
+            sender.sendMessage(ChatColor.RED + "Recipe [" + recipe.slug() + "] "
+                    + (graph.isCyclic(recipe.slug()) ? "is part of" : "depends on")
+                    + " a recipe cycle and cannot be costed.");
+            return;
+        }
+        sender.sendMessage(ChatColor.GOLD + "Cost of one unit of [" + recipe.slug() + "]:");
+        final Map<String, Double> materials = new TreeMap<>();
+        for (final Int2DoubleMap.Entry entry : Int2DoubleMaps.fastIterable(cost.getMaterials())) {
+            materials.put(IngredientRegistry.getName(entry.getIntKey()), entry.getDoubleValue());
+        }
+        for (final Map.Entry<String, Double> entry : materials.entrySet()) {
+            sender.sendMessage(ChatColor.YELLOW + " • " + entry.getKey() + ": "
+                    + ChatColor.AQUA + String.format("%.2f", entry.getValue()));
+        }
+        for (final AlloyQuality quality : AlloyQuality.values()) {
+            final double cookTime = cost.getCookTime(quality);
+            sender.sendMessage(ChatColor.YELLOW + " Cook time (" + quality.name() + "): " + ChatColor.AQUA
+                    + (cookTime < 0d
+                    ? "unobtainable"
+                    : String.format("%.1f", cookTime / TimeUnit.MINUTES.toMillis(1)) + " minutes"));
+        }
+    }
+
+}
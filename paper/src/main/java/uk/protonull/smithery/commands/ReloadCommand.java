@@ -0,0 +1,43 @@
+package uk.protonull.smithery.commands;
+
+import co.aikar.commands.BaseCommand;
+import co.aikar.commands.annotation.CommandAlias;
+import co.aikar.commands.annotation.CommandPermission;
+import co.aikar.commands.annotation.Description;
+import co.aikar.commands.annotation.Subcommand;
+import java.util.logging.Level;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+import uk.protonull.smithery.Smithery;
+
+@CommandAlias(CommandRegistrar.ROOT_COMMAND_ALIAS)
+public final class ReloadCommand extends BaseCommand {
+
+    private boolean isReloading = false;
+
+    @Subcommand("reload")
+    @Description("Reloads the Forge recipes from the config without a restart")
+    @CommandPermission(CommandRegistrar.ADMIN_PERMISSION)
+    public void reloadRecipes(final CommandSender sender) {
+        if (this.isReloading) {
+            sender.sendMessage(ChatColor.RED + "Recipes are already being reloaded.");
+            return;
+        }
+        this.isReloading = true;
+        sender.sendMessage(ChatColor.GRAY + "Reloading recipes...");
+        final Smithery plugin = Smithery.getInstance();
+        // The parse may fail off the main thread, so make sure the response is always on the main thread
+        plugin.reloadRecipes().whenCompleteAsync((snapshot, thrown) -> {
+            this.isReloading = false;
+            if (thrown != null) {
+                plugin.getLogger().log(Level.WARNING, "Could not reload recipes!", thrown);
+                sender.sendMessage(ChatColor.RED + "Could not reload recipes, see the console for details. "
+                        + "The previous recipes are still in use.");
+                return;
+            }
+            sender.sendMessage(ChatColor.GREEN + "Reloaded " + snapshot.getRecipes().size() + " recipes.");
+        }, (final Runnable task) -> Bukkit.getScheduler().runTask(plugin, task));
+    }
+
+}
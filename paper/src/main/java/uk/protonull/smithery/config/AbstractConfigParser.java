@@ -1,21 +1,32 @@
 package uk.protonull.smithery.config;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.jetbrains.annotations.NotNull;
-import uk.protonull.smithery.Smithery;
+import org.jetbrains.annotations.Nullable;
 import uk.protonull.smithery.forge.ForgeRecipe;
 import vg.civcraft.mc.civmodcore.utilities.CivLogger;
 
 public abstract class AbstractConfigParser {
 
     protected final CivLogger logger = CivLogger.getLogger(getClass());
+    private final FileConfiguration config;
+
+    /**
+     * @param config The config to parse from, which need not be the plugin's loaded config.
+     */
+    protected AbstractConfigParser(final @NotNull FileConfiguration config) {
+        this.config = Objects.requireNonNull(config);
+    }
 
     /**
      * @return Returns the config to parse from.
      */
     protected final @NotNull FileConfiguration getConfig() {
-        return Smithery.getInstance().getConfig();
+        return this.config;
     }
 
     /**
@@ -29,8 +40,60 @@ public abstract class AbstractConfigParser {
     public abstract boolean allowLenientQualities();
 
     /**
+     * @return Returns a list of unique Forge recipes from the config's "Recipes" section.
+     */
+    public @NotNull List<ForgeRecipe> parseRecipes() {
+        return parseRecipes(getConfig().getConfigurationSection("Recipes"));
+    }
+
+    /**
+     * Parses a section of recipes, such as the config's "Recipes" section or a file within the recipes directory.
+     * This must be safe to call from several threads at once.
+     *
+     * @param section The section of recipes to parse.
      * @return Returns a list of unique Forge recipes.
      */
-    public abstract @NotNull List<ForgeRecipe> parseRecipes();
+    public abstract @NotNull List<ForgeRecipe> parseRecipes(@Nullable ConfigurationSection section);
+
+    // ------------------------------------------------------------
+    // Smithery-only settings: configs that predate these settings use the defaults below.
+    // ------------------------------------------------------------
+
+    /**
+     * @return Returns true if players should be told which recipe their slag was nearest to.
+     */
+    public boolean shouldHintNearestRecipe() {
+        return false;
+    }
+
+    /**
+     * @return Returns the maximum amount of time, in nanoseconds, the startup Forge loader may spend per tick.
+     */
+    public long getLoaderBudget() {
+        return TimeUnit.MILLISECONDS.toNanos(5);
+    }
+
+    /**
+     * @return Returns the maximum amount of time, in nanoseconds, the Forge autosaver may spend per tick. Zero or less
+     *         disables autosaving.
+     */
+    public long getAutosaveBudget() {
+        return TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @return Returns the amount of ticks between autosave passes.
+     */
+    public long getAutosaveInterval() {
+        return 20L * 60L * 5L; // 5 minutes
+    }
+
+    /**
+     * @return Returns true if dirty Forges should also be flushed, ignoring the budget, just before the server saves its
+     *         worlds.
+     */
+    public boolean shouldAutosaveWithWorlds() {
+        return false;
+    }
 
 }
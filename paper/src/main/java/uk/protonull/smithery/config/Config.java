@@ -5,8 +5,12 @@ import java.util.List;
 import java.util.Objects;
 import lombok.experimental.UtilityClass;
 import org.apache.commons.collections4.IterableUtils;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import uk.protonull.smithery.Smithery;
+import uk.protonull.smithery.alloys.Alloy;
+import uk.protonull.smithery.alloys.AlloyTable;
 import uk.protonull.smithery.config.versions.SmelteryVersion4;
 import uk.protonull.smithery.config.versions.SmitheryVersion1;
 import uk.protonull.smithery.forge.ForgeRecipe;
@@ -26,6 +30,7 @@ public class Config {
     */
     public void forceParseAll() {
         ELEMENTS.forEach(ConfigElement::get);
+        getRecipeSnapshot();
     }
 
     /**
@@ -34,49 +39,124 @@ public class Config {
     public void reset() {
         ELEMENTS.forEach(ConfigElement::reset);
         ELEMENTS.clear();
+        RECIPE_SNAPSHOT = null;
     }
 
     // ------------------------------------------------------------
     // Config Values
     // ------------------------------------------------------------
 
-    public final ConfigElement<List<AbstractConfigParser>> SUPPORTED_VERSIONS = registerElement(new ConfigElement<>() {
+    /**
+     * Finds the parser that supports the given config.
+     *
+     * @param config The config to parse.
+     * @return Returns a parser for that config.
+     * @throws NullPointerException if the config's version isn't supported.
+     */
+    public @NotNull AbstractConfigParser findParser(final @NotNull FileConfiguration config) {
+        return Objects.requireNonNull(
+                IterableUtils.find(
+                        List.of(
+                                new SmitheryVersion1(config),
+                                new SmelteryVersion4(config)
+                        ),
+                        AbstractConfigParser::matchesVersion),
+                "Invalid config version!");
+    }
+
+    public final ConfigElement<AbstractConfigParser> PARSER = registerElement(new ConfigElement<>() {
         @NotNull
         @Override
-        protected List<AbstractConfigParser> parseElement() {
-            return List.of(
-                    new SmitheryVersion1(),
-                    new SmelteryVersion4()
-            );
+        protected AbstractConfigParser parseElement() {
+            return findParser(Smithery.getInstance().getConfig());
         }
     });
 
-    public final ConfigElement<AbstractConfigParser> PARSER = registerElement(new ConfigElement<>() {
+    public final ConfigElement<Boolean> HINT_NEAREST_RECIPE = registerElement(new ConfigElement<>() {
         @NotNull
         @Override
-        protected AbstractConfigParser parseElement() {
-            return Objects.requireNonNull(
-                    IterableUtils.find(SUPPORTED_VERSIONS.get(), AbstractConfigParser::matchesVersion),
-                    "Invalid config version!");
+        protected Boolean parseElement() {
+            return PARSER.get().shouldHintNearestRecipe();
         }
     });
 
-    public final ConfigElement<Boolean> HINTS_ENABLED = registerElement(new ConfigElement<>() {
+    public final ConfigElement<Long> LOADER_BUDGET = registerElement(new ConfigElement<>() {
         @NotNull
         @Override
-        protected Boolean parseElement() {
-            return PARSER.get().allowLenientQualities();
+        protected Long parseElement() {
+            return PARSER.get().getLoaderBudget();
         }
     });
 
-    public final ConfigElement<List<ForgeRecipe>> RECIPES = registerElement(new ConfigElement<>() {
+    public final ConfigElement<Long> AUTOSAVE_BUDGET = registerElement(new ConfigElement<>() {
         @NotNull
         @Override
-        protected List<ForgeRecipe> parseElement() {
-            return List.copyOf(PARSER.get().parseRecipes());
+        protected Long parseElement() {
+            return PARSER.get().getAutosaveBudget();
         }
     });
 
+    public final ConfigElement<Long> AUTOSAVE_INTERVAL = registerElement(new ConfigElement<>() {
+        @NotNull
+        @Override
+        protected Long parseElement() {
+            return PARSER.get().getAutosaveInterval();
+        }
+    });
+
+    public final ConfigElement<Boolean> AUTOSAVE_WITH_WORLDS = registerElement(new ConfigElement<>() {
+        @NotNull
+        @Override
+        protected Boolean parseElement() {
+            return PARSER.get().shouldAutosaveWithWorlds();
+        }
+    });
+
+    // ------------------------------------------------------------
+    // Recipes
+    // ------------------------------------------------------------
+
+    private volatile RecipeSnapshot RECIPE_SNAPSHOT;
+
+    /**
+     * @return Returns the current recipe snapshot, parsing it from the plugin's config if necessary.
+     */
+    public @NotNull RecipeSnapshot getRecipeSnapshot() {
+        RecipeSnapshot snapshot = RECIPE_SNAPSHOT;
+        if (snapshot == null) {
+            snapshot = RecipeSnapshot.load(PARSER.get(), Smithery.getInstance().getDataFolder());
+            snapshot.prepareAlloyItems();
+            RECIPE_SNAPSHOT = snapshot;
+            Alloy.clearDecodeCache();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Unlike {@link #getRecipeSnapshot()}, this will not parse the recipes, since it's used while parsing them.
+     *
+     * @return Returns the current snapshot's canonical Alloys, or an empty table if there isn't a snapshot yet.
+     */
+    public @NotNull AlloyTable getAlloyTable() {
+        final RecipeSnapshot snapshot = RECIPE_SNAPSHOT;
+        return snapshot == null ? AlloyTable.EMPTY : snapshot.getAlloys();
+    }
+
+    /**
+     * Publishes a new recipe snapshot, replacing the current one. This must be called on the main thread, since the
+     * snapshot's Alloy items are built here.
+     *
+     * @param snapshot The snapshot to publish.
+     * @return Returns the previous snapshot, if any.
+     */
+    public @Nullable RecipeSnapshot setRecipeSnapshot(final @NotNull RecipeSnapshot snapshot) {
+        snapshot.prepareAlloyItems();
+        final RecipeSnapshot previous = RECIPE_SNAPSHOT;
+        RECIPE_SNAPSHOT = snapshot;
+        Alloy.clearDecodeCache();
+        return previous;
+    }
+
     /**
      * Attempts to match a recipe against the given slug.
      *
@@ -84,7 +164,7 @@ public class Config {
      * @return Returns a matched recipe, or null.
      */
     public @Nullable ForgeRecipe matchRecipe(final String slug) {
-        return IterableUtils.find(RECIPES.get(), (final ForgeRecipe recipe) -> recipe.slug().equalsIgnoreCase(slug));
+        return slug == null ? null : getRecipeSnapshot().getRecipe(slug);
     }
 
 }
@@ -0,0 +1,253 @@
+package uk.protonull.smithery.config;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMaps;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import lombok.experimental.UtilityClass;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.protonull.smithery.Smithery;
+import uk.protonull.smithery.forge.ForgeRecipe;
+import uk.protonull.smithery.forge.RecipeBook;
+import uk.protonull.smithery.utilities.IngredientRegistry;
+import uk.protonull.smithery.utilities.IntAmountMap;
+import vg.civcraft.mc.civmodcore.utilities.CivLogger;
+
+/**
+ * Loads recipes from the config's "Recipes" section and from every YAML file within the recipes directory, the latter
+ * of which are parsed in parallel. Each file uses the same format as the config's "Recipes" section. The merged
+ * recipes are cached in a binary file keyed by a hash of all the sources, so an unchanged restart skips parsing.
+ */
+@UtilityClass
+public class RecipeLoader {
+
+    private final CivLogger LOGGER = CivLogger.getLogger(RecipeLoader.class);
+
+    public final String RECIPES_DIRECTORY = "recipes";
+    public final String CACHE_FILE = "recipes.cache";
+    private final int CACHE_VERSION = 2;
+    private final String CONFIG_SOURCE = "config.yml";
+
+    private record Source(@NotNull String name,
+                          @NotNull List<ForgeRecipe> recipes) {
+    }
+
+    /**
+     * The recipes of every source, in source order, which may include duplicates. Duplicates are rejected by
+     * {@link RecipeBook}, which keeps whichever comes first.
+     *
+     * @param recipes The recipes of every source.
+     * @param sources The name of the source each recipe came from, keyed by identity.
+     */
+    public record LoadedRecipes(@NotNull List<ForgeRecipe> recipes,
+                                @NotNull Map<ForgeRecipe, String> sources) {
+
+        /**
+         * @param recipe The recipe to find the source of.
+         * @return Returns the name of the source the recipe came from, or null if it's not one of these recipes.
+         */
+        public @Nullable String getSource(final @NotNull ForgeRecipe recipe) {
+            return this.sources.get(recipe);
+        }
+
+    }
+
+    /**
+     * Loads all recipes, from the cache if none of the sources have changed.
+     *
+     * @param parser The parser to parse the recipes with.
+     * @param dataFolder The plugin's data folder.
+     * @return Returns the recipes of every source.
+     */
+    public @NotNull LoadedRecipes loadRecipes(final @NotNull AbstractConfigParser parser,
+                                              final @NotNull File dataFolder) {
+        final long started = System.nanoTime();
+        final Path directory = dataFolder.toPath().resolve(RECIPES_DIRECTORY);
+        final Path cacheFile = dataFolder.toPath().resolve(CACHE_FILE);
+        final List<Path> files = findRecipeFiles(directory);
+        final byte[] hash = hashSources(parser, directory, files);
+        if (hash != null) {
+            final LoadedRecipes cached = readCache(cacheFile, hash);
+            if (cached != null) {
+                LOGGER.info("Loaded [" + cached.recipes().size() + "] recipes from the cache in ["
+                        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + "ms]");
+                return cached;
+            }
+        }
+        final var sources = new ArrayList<Source>(files.size() + 1);
+        sources.add(new Source(CONFIG_SOURCE, parser.parseRecipes()));
+        sources.addAll(files.parallelStream()
+                .map((final Path file) -> new Source(
+                        directory.relativize(file).toString(),
+                        parser.parseRecipes(YamlConfiguration.loadConfiguration(file.toFile()))))
+                .toList());
+        final LoadedRecipes recipes = mergeSources(sources);
+        if (hash != null) {
+            writeCache(cacheFile, hash, recipes);
+        }
+        LOGGER.info("Parsed [" + recipes.recipes().size() + "] recipes from [" + sources.size() + "] sources in ["
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + "ms]");
+        return recipes;
+    }
+
+    private @NotNull List<Path> findRecipeFiles(final @NotNull Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (final Stream<Path> paths = Files.walk(directory)) {
+            return paths
+                    .filter(Files::isRegularFile)
+                    .filter((final Path file) -> {
+                        final String name = file.getFileName().toString();
+                        return name.endsWith(".yml") || name.endsWith(".yaml");
+                    })
+                    .sorted()
+                    .toList();
+        }
+        catch (final IOException thrown) {
+            LOGGER.warning("Could not list the recipes directory: " + thrown);
+            return List.of();
+        }
+    }
+
+    /**
+     * Merges the recipes of every source, in order, noting which source each recipe came from.
+     */
+    private @NotNull LoadedRecipes mergeSources(final @NotNull List<Source> sources) {
+        final var recipes = new ArrayList<ForgeRecipe>();
+        final var recipeSources = new IdentityHashMap<ForgeRecipe, String>();
+        for (final Source source : sources) {
+            for (final ForgeRecipe recipe : source.recipes()) {
+                recipes.add(recipe);
+                recipeSources.put(recipe, source.name());
+            }
+        }
+        return new LoadedRecipes(List.copyOf(recipes), Collections.unmodifiableMap(recipeSources));
+    }
+
+    // ------------------------------------------------------------
+    // Cache
+    // ------------------------------------------------------------
+
+    /**
+     * @return Returns a SHA-256 hash of the parser, the plugin and server versions, and all recipe sources, or null if
+     *         they could not be hashed. The versions are included since an update may change how recipes are parsed,
+     *         or what ingredients exist, without the sources changing.
+     */
+    private byte[] hashSources(final @NotNull AbstractConfigParser parser,
+                               final @NotNull Path directory,
+                               final @NotNull List<Path> files) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((CACHE_VERSION + ":" + parser.getClass().getName() + "\0").getBytes(StandardCharsets.UTF_8));
+            digest.update((Smithery.getInstance().getDescription().getVersion() + "\0"
+                    + Bukkit.getBukkitVersion() + "\0").getBytes(StandardCharsets.UTF_8));
+            digest.update(parser.getConfig().saveToString().getBytes(StandardCharsets.UTF_8));
+            for (final Path file : files) {
+                digest.update(("\0" + directory.relativize(file) + "\0").getBytes(StandardCharsets.UTF_8));
+                digest.update(Files.readAllBytes(file));
+            }
+            return digest.digest();
+        }
+        catch (final IOException | NoSuchAlgorithmException thrown) {
+            LOGGER.warning("Could not hash recipe sources, the recipe cache will not be used: " + thrown);
+            return null;
+        }
+    }
+
+    private @Nullable LoadedRecipes readCache(final @NotNull Path cacheFile,
+                                              final byte[] hash) {
+        try (final var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            if (in.readInt() != CACHE_VERSION) {
+                return null;
+            }
+            final var cachedHash = new byte[hash.length];
+            in.readFully(cachedHash);
+            if (!Arrays.equals(hash, cachedHash)) {
+                return null;
+            }
+            final int recipeCount = in.readInt();
+            final var recipes = new ArrayList<ForgeRecipe>(recipeCount);
+            final var recipeSources = new IdentityHashMap<ForgeRecipe, String>(recipeCount);
+            for (int i = 0; i < recipeCount; i++) {
+                final String source = in.readUTF();
+                final String slug = in.readUTF();
+                final String name = in.readUTF();
+                final int yield = in.readInt();
+                final long cookTime = in.readLong();
+                final double failChance = in.readDouble();
+                final int ingredientCount = in.readInt();
+                final var ingredients = new IntAmountMap.ArrayMap(ingredientCount);
+                for (int j = 0; j < ingredientCount; j++) {
+                    ingredients.put(IngredientRegistry.getID(in.readUTF()), in.readInt());
+                }
+                final var recipe = new ForgeRecipe(slug, name, yield, cookTime, failChance, ingredients);
+                recipes.add(recipe);
+                recipeSources.put(recipe, source);
+            }
+            return new LoadedRecipes(List.copyOf(recipes), Collections.unmodifiableMap(recipeSources));
+        }
+        catch (final NoSuchFileException ignored) {
+            return null;
+        }
+        catch (final IOException | RuntimeException thrown) {
+            LOGGER.warning("Could not read the recipe cache, re-parsing instead: " + thrown);
+            return null;
+        }
+    }
+
+    private void writeCache(final @NotNull Path cacheFile,
+                            final byte[] hash,
+                            final @NotNull LoadedRecipes recipes) {
+        final Path tempFile = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            try (final var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(CACHE_VERSION);
+                out.write(hash);
+                out.writeInt(recipes.recipes().size());
+                for (final ForgeRecipe recipe : recipes.recipes()) {
+                    out.writeUTF(Objects.requireNonNullElse(recipes.getSource(recipe), CONFIG_SOURCE));
+                    out.writeUTF(recipe.slug());
+                    out.writeUTF(recipe.name());
+                    out.writeInt(recipe.yield());
+                    out.writeLong(recipe.cookTime());
+                    out.writeDouble(recipe.failChance());
+                    out.writeInt(recipe.ingredients().size());
+                    for (final Int2IntMap.Entry entry : Int2IntMaps.fastIterable(recipe.ingredients())) {
+                        out.writeUTF(IngredientRegistry.getName(entry.getIntKey()));
+                        out.writeInt(entry.getIntValue());
+                    }
+                }
+            }
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (final IOException thrown) {
+            LOGGER.warning("Could not write the recipe cache: " + thrown);
+        }
+    }
+
+}
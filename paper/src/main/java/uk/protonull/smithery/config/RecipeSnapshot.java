@@ -0,0 +1,156 @@
+package uk.protonull.smithery.config;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.protonull.smithery.alloys.AlloyItemCache;
+import uk.protonull.smithery.alloys.AlloyTable;
+import uk.protonull.smithery.forge.ForgeRecipe;
+import uk.protonull.smithery.forge.RecipeBook;
+import uk.protonull.smithery.forge.RecipeEvaluator;
+import uk.protonull.smithery.forge.RecipeGraph;
+import uk.protonull.smithery.forge.RecipeSimilarityIndex;
+
+/**
+ * An immutable, fully indexed set of recipes and the settings that affect them. Everything but the Alloy item
+ * prototypes is built in the constructor, so a snapshot can be built off the main thread and then published in one go,
+ * see {@link Config#setRecipeSnapshot(RecipeSnapshot)}. The item prototypes are built on the main thread as the
+ * snapshot is published. Read the snapshot once per operation, rather than once per
+ * lookup, so that a reload cannot land part-way through.
+ */
+public final class RecipeSnapshot {
+
+    private final boolean hintsEnabled;
+    private final AlloyTable alloys;
+    /**
+     * Built by {@link #prepareAlloyItems()} before the snapshot is published, since creating items isn't thread-safe.
+     */
+    private AlloyItemCache alloyItems;
+    private final RecipeBook book;
+    private final RecipeEvaluator evaluator;
+    private final RecipeGraph graph;
+    private final RecipeSimilarityIndex similarityIndex;
+
+    /**
+     * @param hintsEnabled Whether the Forges can produce lesser quality Alloys.
+     * @param recipes The recipes to index.
+     */
+    public RecipeSnapshot(final boolean hintsEnabled,
+                          final @NotNull Collection<ForgeRecipe> recipes) {
+        this(hintsEnabled, recipes, (final ForgeRecipe recipe) -> null);
+    }
+
+    /**
+     * @param hintsEnabled Whether the Forges can produce lesser quality Alloys.
+     * @param recipes The recipes to index.
+     * @param sources Names the source each recipe came from, if known, see {@link RecipeBook}.
+     */
+    public RecipeSnapshot(final boolean hintsEnabled,
+                          final @NotNull Collection<ForgeRecipe> recipes,
+                          final @NotNull Function<ForgeRecipe, String> sources) {
+        this.hintsEnabled = hintsEnabled;
+        this.book = new RecipeBook(recipes, sources);
+        this.alloys = new AlloyTable(this.book.getRecipes(), Config.getAlloyTable());
+        this.evaluator = new RecipeEvaluator(this.book, this.alloys, this.hintsEnabled);
+        this.graph = new RecipeGraph(this.book, this.evaluator);
+        this.similarityIndex = new RecipeSimilarityIndex(this.evaluator);
+    }
+
+    /**
+     * Loads a new snapshot from the config and the recipes directory, see {@link RecipeLoader}.
+     *
+     * @param parser The parser to parse recipes and settings with.
+     * @param dataFolder The plugin's data folder.
+     * @return Returns a new snapshot.
+     */
+    public static @NotNull RecipeSnapshot load(final @NotNull AbstractConfigParser parser,
+                                               final @NotNull File dataFolder) {
+        final RecipeLoader.LoadedRecipes loaded = RecipeLoader.loadRecipes(parser, dataFolder);
+        return new RecipeSnapshot(parser.allowLenientQualities(), loaded.recipes(), loaded::getSource);
+    }
+
+    /**
+     * @return Returns true if the Forges can produce lesser quality Alloys.
+     */
+    public boolean isHintsEnabled() {
+        return this.hintsEnabled;
+    }
+
+    /**
+     * @return Returns the canonical Alloys of every recipe.
+     */
+    public @NotNull AlloyTable getAlloys() {
+        return this.alloys;
+    }
+
+    /**
+     * Builds the prototype Alloy items of every recipe, if they haven't been already. This must be called on the main
+     * thread, before the snapshot is published.
+     */
+    void prepareAlloyItems() {
+        if (!Bukkit.isPrimaryThread()) {
+            throw new IllegalStateException("Alloy items must be prepared on the main thread!");
+        }
+        if (this.alloyItems == null) {
+            this.alloyItems = new AlloyItemCache(this.book.getRecipes(), this.alloys);
+        }
+    }
+
+    /**
+     * @return Returns the prototype Alloy items of every recipe.
+     */
+    public @NotNull AlloyItemCache getAlloyItems() {
+        if (this.alloyItems == null) {
+            throw new IllegalStateException("This snapshot has yet to be published!");
+        }
+        return this.alloyItems;
+    }
+
+    /**
+     * @return Returns the recipes, indexed for lookup.
+     */
+    public @NotNull RecipeBook getBook() {
+        return this.book;
+    }
+
+    /**
+     * @return Returns the recipes, compiled for evaluating Forges.
+     */
+    public @NotNull RecipeEvaluator getEvaluator() {
+        return this.evaluator;
+    }
+
+    /**
+     * @return Returns the recipes' dependency graph.
+     */
+    public @NotNull RecipeGraph getGraph() {
+        return this.graph;
+    }
+
+    /**
+     * @return Returns the index of which recipes are nearest to a set of ingredients.
+     */
+    public @NotNull RecipeSimilarityIndex getSimilarityIndex() {
+        return this.similarityIndex;
+    }
+
+    /**
+     * @return Returns all the recipes, sorted by slug.
+     */
+    public @NotNull List<ForgeRecipe> getRecipes() {
+        return this.book.getRecipes();
+    }
+
+    /**
+     * @param slug The recipe slug to find, ignoring case.
+     * @return Returns the matched recipe, or null.
+     */
+    public @Nullable ForgeRecipe getRecipe(final @NotNull String slug) {
+        return this.book.getRecipe(slug);
+    }
+
+}
@@ -6,15 +6,21 @@ import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import org.apache.commons.lang3.StringUtils;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.jetbrains.annotations.NotNull;
 import uk.protonull.smithery.alloys.Alloy;
 import uk.protonull.smithery.config.AbstractConfigParser;
 import uk.protonull.smithery.forge.ForgeRecipe;
-import uk.protonull.smithery.utilities.AmountMap;
+import uk.protonull.smithery.utilities.IngredientRegistry;
+import uk.protonull.smithery.utilities.IntAmountMap;
 import vg.civcraft.mc.civmodcore.config.ConfigHelper;
 
 public final class SmelteryVersion4 extends AbstractConfigParser {
 
+    public SmelteryVersion4(final @NotNull FileConfiguration config) {
+        super(config);
+    }
+
     @Override
     public boolean matchesVersion() {
         return "1.4".equals(getConfig().getString("SmelteryConfigVersion"));
@@ -26,13 +32,11 @@ public final class SmelteryVersion4 extends AbstractConfigParser {
     }
 
     @Override
-    public @NotNull List<ForgeRecipe> parseRecipes() {
+    public @NotNull List<ForgeRecipe> parseRecipes(final ConfigurationSection section) {
         final var recipes = new HashMap<String, ForgeRecipe>();
-        final ConfigurationSection section = getConfig().getConfigurationSection("Recipes");
         if (section != null) {
-            this.logger.info("Loading Recipes");
             for (final String recipeKey : section.getKeys(false)) {
-                this.logger.info(" Recipe Key: " + recipeKey);
+                this.logger.fine(" Recipe Key: " + recipeKey);
                 final ConfigurationSection recipeSection = section.getConfigurationSection(recipeKey);
                 if (recipeSection == null) {
                     this.logger.info(" Recipe [" + recipeKey + "] is not a section!");
@@ -71,7 +75,7 @@ public final class SmelteryVersion4 extends AbstractConfigParser {
                     failPercentage = 100d;
                 }
                 // Ingredients
-                final AmountMap<String> ingredients = parseIngredientsList(this.logger, recipeSection, "Ingredients");
+                final IntAmountMap ingredients = parseIngredientsList(this.logger, recipeSection, "Ingredients");
                 recipes.put(slug, new ForgeRecipe(
                         slug,
                         name,
@@ -85,17 +89,17 @@ public final class SmelteryVersion4 extends AbstractConfigParser {
         return List.copyOf(recipes.values());
     }
 
-    public static @NotNull AmountMap<String> parseIngredientsList(final @NotNull Logger logger,
-                                                                  final @NotNull ConfigurationSection section,
-                                                                  final @NotNull String key) {
-        final var map = new AmountMap.ArrayMap<String>();
+    public static @NotNull IntAmountMap parseIngredientsList(final @NotNull Logger logger,
+                                                             final @NotNull ConfigurationSection section,
+                                                             final @NotNull String key) {
+        final var map = new IntAmountMap.ArrayMap();
         for (final String ingredient : ConfigHelper.getStringList(section, key)) {
             final String[] parts = StringUtils.split(ingredient, "/");
             if (parts.length != 2) {
                 logger.warning("Ingredient [" + ingredient + "] is not valid!");
                 continue;
             }
-            parts[0] = Alloy.fromKey(parts[0]).generateKey();
+            parts[0] = Alloy.fromKey(parts[0].toUpperCase()).generateKey();
             final int amount;
             try {
                 amount = Integer.parseInt(parts[1]);
@@ -108,7 +112,7 @@ public final class SmelteryVersion4 extends AbstractConfigParser {
                 logger.warning("Ingredient [" + ingredient + "] must have a positive integer amount!");
                 continue;
             }
-            map.put(parts[0], amount);
+            map.put(IngredientRegistry.getID(parts[0]), amount);
         }
         return map;
     }
@@ -5,13 +5,18 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang3.StringUtils;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.jetbrains.annotations.NotNull;
 import uk.protonull.smithery.config.AbstractConfigParser;
 import uk.protonull.smithery.forge.ForgeRecipe;
-import uk.protonull.smithery.utilities.AmountMap;
+import uk.protonull.smithery.utilities.IntAmountMap;
 
 public final class SmitheryVersion1 extends AbstractConfigParser {
 
+    public SmitheryVersion1(final @NotNull FileConfiguration config) {
+        super(config);
+    }
+
     @Override
     public boolean matchesVersion() {
         return "1".equals(getConfig().getString("SmitheryConfig"));
@@ -23,13 +28,47 @@ public final class SmitheryVersion1 extends AbstractConfigParser {
     }
 
     @Override
-    public @NotNull List<ForgeRecipe> parseRecipes() {
+    public boolean shouldHintNearestRecipe() {
+        return getConfig().getBoolean("HintNearestRecipe", false);
+    }
+
+    @Override
+    public long getLoaderBudget() {
+        final double budgetMillis = getConfig().getDouble("StartupLoadBudgetMillis", 5d);
+        if (budgetMillis <= 0d) {
+            this.logger.warning("Startup load budget [" + budgetMillis + "] must be positive... defaulting to 5");
+            return TimeUnit.MILLISECONDS.toNanos(5);
+        }
+        return (long) (budgetMillis * TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    @Override
+    public long getAutosaveBudget() {
+        final double budgetMillis = getConfig().getDouble("Autosave.budgetMillis", 1d);
+        return (long) (budgetMillis * TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    @Override
+    public long getAutosaveInterval() {
+        final int intervalSeconds = getConfig().getInt("Autosave.intervalSeconds", 300);
+        if (intervalSeconds < 1) {
+            this.logger.warning("Autosave interval [" + intervalSeconds + "] is less than one second... clamping to 1");
+            return 20L;
+        }
+        return intervalSeconds * 20L;
+    }
+
+    @Override
+    public boolean shouldAutosaveWithWorlds() {
+        return getConfig().getBoolean("Autosave.withWorldSaves", false);
+    }
+
+    @Override
+    public @NotNull List<ForgeRecipe> parseRecipes(final ConfigurationSection section) {
         final var recipes = new HashMap<String, ForgeRecipe>();
-        final ConfigurationSection section = getConfig().getConfigurationSection("Recipes");
         if (section != null) {
-            this.logger.info("Loading Recipes");
             for (final String slug : section.getKeys(false)) {
-                this.logger.info(" Recipe Key: " + slug);
+                this.logger.fine(" Recipe Key: " + slug);
                 final ConfigurationSection recipeSection = section.getConfigurationSection(slug);
                 if (recipeSection == null) {
                     this.logger.info(" Recipe [" + slug + "] is not a section!");
@@ -64,7 +103,7 @@ public final class SmitheryVersion1 extends AbstractConfigParser {
                     failPercentage = 100d;
                 }
                 // Ingredients
-                final AmountMap<String> ingredients = SmelteryVersion4.parseIngredientsList(this.logger, recipeSection, "ingredients");
+                final IntAmountMap ingredients = SmelteryVersion4.parseIngredientsList(this.logger, recipeSection, "ingredients");
                 recipes.put(slug, new ForgeRecipe(
                         slug,
                         name,
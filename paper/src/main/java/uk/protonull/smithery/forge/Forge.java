@@ -1,7 +1,8 @@
 package uk.protonull.smithery.forge;
 
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMaps;
 import java.util.Objects;
-import java.util.UUID;
 import net.kyori.adventure.text.Component;
 import net.minecraft.nbt.CompoundTag;
 import org.bukkit.Bukkit;
@@ -12,8 +13,12 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
+import uk.protonull.smithery.config.Config;
 import uk.protonull.smithery.utilities.AmountMap;
+import uk.protonull.smithery.utilities.IngredientRegistry;
+import uk.protonull.smithery.utilities.IntAmountMap;
 import uk.protonull.smithery.utilities.Utilities;
 
 public final class Forge implements InventoryHolder {
@@ -23,36 +28,51 @@ public final class Forge implements InventoryHolder {
     private static final String INGREDIENTS_KEY = "ingredients";
     private static final String TIME_KEY = "time";
     private static final String INVENTORY_KEY = "inventory";
+    /**
+     * The crafting result slot, which holds the insert button while the inventory is open. The button is rebuilt each
+     * time, so it is neither saved nor compared.
+     */
+    private static final int INSERT_BUTTON_SLOT = 0;
 
     private final Furnace furnace;
     private final ForgeLocation location;
-    private final AmountMap<String> ingredients;
+    private final IntAmountMap ingredients;
+    private final IntAmountMap ingredientsView;
     private long timeOfLastIngredientInsert;
-    private final Inventory inventory;
+    /**
+     * The match for this Forge's current ingredients, or null if it needs to be computed.
+     */
+    private ForgeMatch match;
+    private Inventory inventory;
+    /**
+     * A copy of this Forge's inventory as it was when players last opened or closed it, or null if it hasn't been
+     * opened, see {@link #snapshotInventory()}.
+     */
+    private ItemStack[] inventorySnapshot;
+    /**
+     * The raw NBT this Forge was loaded from, which is kept until the Forge is first needed. If this is null, then the
+     * Forge has been hydrated.
+     */
+    private CompoundTag dehydrated;
+    /**
+     * Whether this Forge has changed since it was last loaded or saved. New Forges start dirty since they have yet to
+     * be saved at all.
+     */
+    private boolean dirty;
+    /**
+     * Whether this Forge is currently within {@link ForgeManager}'s dirty queue.
+     */
+    boolean queuedForSave;
 
     public Forge(final @NotNull Furnace furnace) {
         this.furnace = Objects.requireNonNull(furnace);
-        this.location = new ForgeLocation() {
-            @Override
-            public @NotNull UUID getWorldUUID() {
-                return furnace.getWorld().getUID();
-            }
-            @Override
-            public int getX() {
-                return furnace.getX();
-            }
-            @Override
-            public int getY() {
-                return furnace.getY();
-            }
-            @Override
-            public int getZ() {
-                return furnace.getZ();
-            }
-        };
-        this.ingredients = new AmountMap.ArrayMap<>(0);
+        this.location = ForgeLocation.of(furnace.getWorld(), furnace.getX(), furnace.getY(), furnace.getZ());
+        this.ingredients = new IntAmountMap.TotallingArrayMap();
+        this.ingredientsView = new IntAmountMap.Unmodifiable(this.ingredients);
         this.timeOfLastIngredientInsert = 0L;
-        this.inventory = Bukkit.createInventory(this, InventoryType.WORKBENCH, FORGE_TITLE);
+        this.inventory = null;
+        this.dehydrated = null;
+        this.dirty = true;
     }
 
     /**
@@ -63,9 +83,8 @@ public final class Forge implements InventoryHolder {
     }
 
     /**
-     * @return Returns this Forge's location. Be aware that this location's values reflect the Furnace entity's current
-     *         location, not its original location. If the Furnace has been moved by any means in Minecraft, the Forge
-     *         location will reflect that. Keep that in mind when using this as a map-key.
+     * @return Returns this Forge's location. This is captured when the Forge is created and will not change, so it's
+     *         safe to use as a map-key.
      */
     public @NotNull ForgeLocation getLocation() {
         return this.location;
@@ -76,15 +95,113 @@ public final class Forge implements InventoryHolder {
      */
     @Override
     public @NotNull Inventory getInventory() {
+        hydrate();
+        return getOrCreateInventory();
+    }
+
+    private @NotNull Inventory getOrCreateInventory() {
+        if (this.inventory == null) {
+            this.inventory = Bukkit.createInventory(this, InventoryType.WORKBENCH, FORGE_TITLE);
+        }
         return this.inventory;
     }
 
     /**
-     * @return Returns all the ingredients in this Forge.
+     * @return Returns an unmodifiable view of all the ingredients in this Forge, keyed by {@link IngredientRegistry}
+     *         IDs. Use {@link #addIngredients(IntAmountMap)} and {@link #flushIngredients()} to change them.
+     */
+    public @NotNull IntAmountMap getIngredients() {
+        hydrate();
+        return this.ingredientsView;
+    }
+
+    /**
+     * Forges used to expose their ingredients as a mutable map keyed by string IDs. They're now keyed by interned
+     * {@link IngredientRegistry} IDs, see {@link #getIngredients()}, which is read-only.
+     *
+     * @return Returns a read-only copy of all the ingredients in this Forge, keyed by string IDs.
+     * @deprecated Use {@link #getIngredients()} instead. Changes cannot be made through this copy, use
+     *             {@link #addIngredients(IntAmountMap)} and {@link #flushIngredients()} instead.
+     */
+    @Deprecated
+    public @NotNull AmountMap<String> getIngredientsByName() {
+        final IntAmountMap ingredients = getIngredients();
+        final var named = new AmountMap.ArrayMap<String>(ingredients.size());
+        for (final Int2IntMap.Entry entry : Int2IntMaps.fastIterable(ingredients)) {
+            named.put(IngredientRegistry.getName(entry.getIntKey()), entry.getIntValue());
+        }
+        return new AmountMap.Unmodifiable<>(named);
+    }
+
+    /**
+     * Adds the given ingredients to this Forge, narrowing its match as it goes.
+     *
+     * @param added The ingredients to add, keyed by {@link IngredientRegistry} IDs.
+     */
+    public void addIngredients(final @NotNull IntAmountMap added) {
+        hydrate();
+        ForgeMatch match = getCurrentMatch();
+        for (final Int2IntMap.Entry entry : Int2IntMaps.fastIterable(added)) {
+            final int ingredientID = entry.getIntKey();
+            final boolean isNew = !this.ingredients.containsKey(ingredientID);
+            final boolean isPresent = this.ingredients.changeAmountBy(ingredientID, entry.getIntValue()) > 0;
+            if (match == null) {
+                continue;
+            }
+            if (isNew && isPresent) {
+                match.narrow(ingredientID);
+            }
+            else if (!isNew && !isPresent) {
+                // An ingredient was removed, so the candidates need to be recomputed
+                this.match = match = null;
+            }
+        }
+        if (match != null) {
+            match.resolve(this.ingredients, this.timeOfLastIngredientInsert);
+        }
+        markDirty();
+    }
+
+    /**
+     * Removes all the ingredients from this Forge.
+     */
+    public void flushIngredients() {
+        hydrate();
+        this.ingredients.clear();
+        final ForgeMatch match = getCurrentMatch();
+        if (match != null) {
+            match.reset();
+        }
+        markDirty();
+    }
+
+    /**
+     * @return Returns the recipe match for this Forge's current ingredients, which is kept up to date as ingredients
+     *         are added and flushed.
      */
-    public @NotNull AmountMap<String> getIngredients() {
-        this.ingredients.removeEmpties();
-        return this.ingredients;
+    public @NotNull ForgeMatch getMatch() {
+        hydrate();
+        final RecipeEvaluator evaluator = Config.getRecipeSnapshot().getEvaluator();
+        ForgeMatch match = getCurrentMatch(evaluator);
+        if (match == null) {
+            this.match = match = ForgeMatch.compute(evaluator, this.ingredients, this.timeOfLastIngredientInsert);
+        }
+        return match;
+    }
+
+    /**
+     * @return Returns the existing match if it was computed against the current recipes, otherwise null.
+     */
+    private ForgeMatch getCurrentMatch() {
+        return getCurrentMatch(Config.getRecipeSnapshot().getEvaluator());
+    }
+
+    private ForgeMatch getCurrentMatch(final @NotNull RecipeEvaluator evaluator) {
+        final ForgeMatch match = this.match;
+        if (match == null || match.getEvaluator() != evaluator) {
+            return this.match = null;
+        }
+        return match;
     }
 
     /**
@@ -98,6 +215,7 @@ public final class Forge implements InventoryHolder {
      * @return Returns the timestamp (in milliseconds) of when the last ingredient was inserted.
      */
     public long getTimeOfLastIngredientInsert() {
+        hydrate();
         return this.timeOfLastIngredientInsert;
     }
 
@@ -105,22 +223,90 @@ public final class Forge implements InventoryHolder {
      * @param timeOfLastIngredientInsert The time of the last ingredient insert to set.
      */
     public void setTimeOfLastIngredientInsert(final long timeOfLastIngredientInsert) {
+        hydrate();
         this.timeOfLastIngredientInsert = timeOfLastIngredientInsert;
+        final ForgeMatch match = getCurrentMatch();
+        if (match != null) {
+            match.resolve(this.ingredients, timeOfLastIngredientInsert);
+        }
+        markDirty();
+    }
+
+    /**
+     * @return Returns whether this Forge has changed since it was last loaded or saved.
+     */
+    public boolean isDirty() {
+        return this.dirty;
+    }
+
+    /**
+     * Flags this Forge as having changed. Be sure to call this after modifying {@link #getInventory()} directly,
+     * otherwise those changes may not be saved.
+     */
+    public void markDirty() {
+        this.dirty = true;
+        ForgeManager.queueDirtyForge(this);
     }
 
     /**
      * Convenience method to store this Forge's data onto its Furnace entity.
      */
     public void saveForge() {
-        ForgeUtils.getFurnaceNBT(getFurnace()).put(Forge.FORGE_KEY.asString(), toNBT());
+        ForgeUtils.getFurnaceNBT(getFurnace()).put(Forge.FORGE_KEY.asString(),
+                isHydrated() ? toNBT() : this.dehydrated);
+        this.dirty = false;
+    }
+
+    /**
+     * Remembers this Forge's inventory as it is now, so that {@link #markDirtyIfInventoryChanged()} can tell whether
+     * players have since changed it. Use this when the inventory is opened.
+     */
+    public void snapshotInventory() {
+        final ItemStack[] contents = getInventory().getContents();
+        for (int i = 0; i < contents.length; i++) {
+            final ItemStack item = contents[i];
+            // The contents are mirrors of the inventory's items, so must be cloned to stay as they are now
+            contents[i] = i == INSERT_BUTTON_SLOT || Utilities.isEmptyItem(item) ? null : item.clone();
+        }
+        this.inventorySnapshot = contents;
+    }
+
+    /**
+     * Flags this Forge as having changed if its inventory has changed since it was last snapshotted, see
+     * {@link #snapshotInventory()}, and snapshots it again if so. Use this when the inventory is closed.
+     */
+    public void markDirtyIfInventoryChanged() {
+        final ItemStack[] snapshot = this.inventorySnapshot;
+        final ItemStack[] contents = getInventory().getContents();
+        if (snapshot != null && snapshot.length == contents.length) {
+            boolean changed = false;
+            for (int i = 0; i < contents.length && !changed; i++) {
+                if (i != INSERT_BUTTON_SLOT) {
+                    final ItemStack item = contents[i];
+                    changed = !Objects.equals(Utilities.isEmptyItem(item) ? null : item, snapshot[i]);
+                }
+            }
+            if (!changed) {
+                return;
+            }
+        }
+        markDirty();
+        snapshotInventory();
     }
 
     /**
      * Convenience method to close this Forge's inventory for all viewing players.
      */
     public void closeInventory() {
-        ForgeManager.GUIS.remove(getInventory());
-        for (final HumanEntity viewer : getInventory().getViewers()) {
+        if (this.inventory == null) {
+            return;
+        }
+        if (!this.inventory.getViewers().isEmpty()) {
+            // The close event won't find this Forge once it's out of the GUIs, so record any edits now
+            markDirtyIfInventoryChanged();
+        }
+        ForgeManager.GUIS.remove(this.inventory);
+        for (final HumanEntity viewer : this.inventory.getViewers()) {
             if (viewer instanceof final Player player) {
                 player.closeInventory();
             }
@@ -133,35 +319,66 @@ public final class Forge implements InventoryHolder {
      * @return Returns a new NBT compound representing this Forge.
      */
     public @NotNull CompoundTag toNBT() {
+        if (!isHydrated()) {
+            return this.dehydrated.copy();
+        }
         final var nbt = new CompoundTag();
         // Save ingredients
         final CompoundTag ingredientNBT = Utilities.getOrCreateCompound(nbt, INGREDIENTS_KEY);
-        getIngredients().forEach(ingredientNBT::putInt);
+        for (final Int2IntMap.Entry entry : Int2IntMaps.fastIterable(getIngredients())) {
+            ingredientNBT.putInt(IngredientRegistry.getName(entry.getIntKey()), entry.getIntValue());
+        }
         // Save time of last insert
         nbt.putLong(TIME_KEY, getTimeOfLastIngredientInsert());
         // Save inventory
-        nbt.put(INVENTORY_KEY, Utilities.inventoryToNBT(getInventory()));
+        final CompoundTag inventoryNBT = Utilities.inventoryToNBT(getInventory());
+        inventoryNBT.remove(Integer.toString(INSERT_BUTTON_SLOT));
+        nbt.put(INVENTORY_KEY, inventoryNBT);
         return nbt;
     }
 
     /**
-     * Updates this Forge to reflect the given NBT compound.
+     * Updates this Forge to reflect the given NBT compound. The NBT is not decoded until the Forge is actually needed,
+     * see {@link #hydrate()}.
      *
      * @param nbt The NBT compound to decode.
      */
     public void fromNBT(final @NotNull CompoundTag nbt) {
+        this.dehydrated = Objects.requireNonNull(nbt);
+        this.dirty = false;
+    }
+
+    /**
+     * @return Returns whether this Forge's NBT has been decoded.
+     */
+    public boolean isHydrated() {
+        return this.dehydrated == null;
+    }
+
+    /**
+     * Decodes this Forge's NBT if it hasn't been already. All getters and setters call this for you, so you should
+     * only need to call this if you want to force the decode ahead of time.
+     */
+    public void hydrate() {
+        final CompoundTag nbt = this.dehydrated;
+        if (nbt == null) {
+            return;
+        }
+        this.dehydrated = null;
+        this.match = null;
         // Load ingredients
-        final AmountMap<String> ingredients = getIngredients();
-        ingredients.clear();
+        this.ingredients.clear();
         final CompoundTag ingredientNBT = nbt.getCompound(INGREDIENTS_KEY);
         for (final String ingredient : ingredientNBT.getAllKeys()) {
-            ingredients.put(ingredient, ingredientNBT.getInt(ingredient));
+            this.ingredients.put(IngredientRegistry.getID(ingredient), ingredientNBT.getInt(ingredient));
         }
-        ingredients.removeEmpties();
         // Load time of last insert
-        setTimeOfLastIngredientInsert(nbt.getLong(TIME_KEY));
-        // Load inventory
-        Utilities.inventoryFromNBT(getInventory(), nbt.getCompound(INVENTORY_KEY));
+        this.timeOfLastIngredientInsert = nbt.getLong(TIME_KEY);
+        // Load inventory, minus the insert button that older versions saved
+        final Inventory inventory = getOrCreateInventory();
+        Utilities.inventoryFromNBT(inventory, nbt.getCompound(INVENTORY_KEY));
+        inventory.setItem(INSERT_BUTTON_SLOT, null);
+        this.inventorySnapshot = null;
     }
 
 }
@@ -0,0 +1,211 @@
+package uk.protonull.smithery.forge;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldSaveEvent;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import uk.protonull.smithery.Smithery;
+import uk.protonull.smithery.config.Config;
+
+/**
+ * Incrementally saves dirty Forges. Each pass walks {@link ForgeManager}'s dirty queue in the order Forges were
+ * changed, but will only spend up to {@link Config#AUTOSAVE_BUDGET} per tick doing so, continuing on the next tick if
+ * it ran out of time.
+ *
+ * <p>If enabled, any Forges still dirty when a world is saved are flushed right away, regardless of the budget, since
+ * {@link WorldSaveEvent} is called just before the world writes its chunks. A pass started by that event would only
+ * reach the disk with the following world save.
+ */
+public final class ForgeAutosaver implements Listener {
+
+    private final long budget;
+    private final long interval;
+    private final boolean withWorldSaves;
+    private BukkitTask task;
+
+    private long ticksUntilNextPass;
+    private boolean isPassRunning;
+    private long currentPassTicks;
+    private int currentPassSaved;
+    private int currentPassRemaining;
+
+    private long completedPasses;
+    private long lastPassTicks;
+    private int lastPassSaved;
+
+    public ForgeAutosaver() {
+        this.budget = Config.AUTOSAVE_BUDGET.get();
+        this.interval = Config.AUTOSAVE_INTERVAL.get();
+        this.withWorldSaves = Config.AUTOSAVE_WITH_WORLDS.get();
+    }
+
+    /**
+     * Starts the autosaver, assuming it's enabled.
+     *
+     * @param plugin The plugin to register the task and listener with.
+     */
+    public void start(final @NotNull Smithery plugin) {
+        if (this.task != null || !isEnabled()) {
+            return;
+        }
+        this.ticksUntilNextPass = this.interval;
+        ForgeManager.setDirtyQueueEnabled(true);
+        this.task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        if (this.withWorldSaves) {
+            Bukkit.getPluginManager().registerEvents(this, plugin);
+        }
+    }
+
+    /**
+     * Stops the autosaver. Any remaining dirty Forges are left for {@link ForgeManager#saveAllForges()}.
+     */
+    public void stop() {
+        if (this.task != null) {
+            this.task.cancel();
+            this.task = null;
+        }
+        HandlerList.unregisterAll(this);
+        ForgeManager.setDirtyQueueEnabled(false);
+        this.isPassRunning = false;
+    }
+
+    /**
+     * @return Returns whether autosaving is enabled.
+     */
+    public boolean isEnabled() {
+        return this.budget > 0L;
+    }
+
+    /**
+     * Begins a new autosave pass if one isn't already running.
+     */
+    public void beginPass() {
+        if (!this.isPassRunning) {
+            this.isPassRunning = true;
+            this.currentPassTicks = 0L;
+            this.currentPassSaved = 0;
+            // Forges dirtied during this pass are left for the next pass
+            this.currentPassRemaining = ForgeManager.getDirtyForgeCount();
+        }
+    }
+
+    /**
+     * Saves every dirty Forge right away, ignoring the budget.
+     *
+     * @return Returns how many Forges were saved.
+     */
+    public int flush() {
+        int saved = 0;
+        Forge forge;
+        while ((forge = ForgeManager.pollDirtyForge()) != null) {
+            if (ForgeManager.saveForgeIfDirty(forge)) {
+                saved++;
+            }
+        }
+        if (this.isPassRunning) {
+            this.currentPassSaved += saved;
+            this.currentPassRemaining = 0;
+        }
+        return saved;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onWorldSave(final WorldSaveEvent event) {
+        flush();
+    }
+
+    private void tick() {
+        if (!this.isPassRunning) {
+            if (--this.ticksUntilNextPass > 0L) {
+                return;
+            }
+            this.ticksUntilNextPass = this.interval;
+            beginPass();
+        }
+        this.currentPassTicks++;
+        final long deadline = System.nanoTime() + this.budget;
+        Forge forge;
+        while (this.currentPassRemaining > 0 && (forge = ForgeManager.pollDirtyForge()) != null) {
+            this.currentPassRemaining--;
+            if (ForgeManager.saveForgeIfDirty(forge)) {
+                this.currentPassSaved++;
+            }
+            if (System.nanoTime() >= deadline) {
+                return;
+            }
+        }
+        this.isPassRunning = false;
+        this.currentPassRemaining = 0;
+        this.completedPasses++;
+        this.lastPassTicks = this.currentPassTicks;
+        this.lastPassSaved = this.currentPassSaved;
+    }
+
+    /**
+     * @return Returns whether a pass is currently in progress.
+     */
+    public boolean isPassRunning() {
+        return this.isPassRunning;
+    }
+
+    /**
+     * @return Returns how many ticks the current pass has been running for.
+     */
+    public long getCurrentPassTicks() {
+        return this.currentPassTicks;
+    }
+
+    /**
+     * @return Returns how many Forges the current pass has saved so far.
+     */
+    public int getCurrentPassSaved() {
+        return this.currentPassSaved;
+    }
+
+    /**
+     * @return Returns roughly how many dirty Forges the current pass has yet to get through.
+     */
+    public int getCurrentPassRemaining() {
+        return this.currentPassRemaining;
+    }
+
+    /**
+     * @return Returns how many passes have completed.
+     */
+    public long getCompletedPasses() {
+        return this.completedPasses;
+    }
+
+    /**
+     * @return Returns how many ticks the last completed pass took.
+     */
+    public long getLastPassTicks() {
+        return this.lastPassTicks;
+    }
+
+    /**
+     * @return Returns how many Forges the last completed pass saved.
+     */
+    public int getLastPassSaved() {
+        return this.lastPassSaved;
+    }
+
+    /**
+     * @return Returns how many ticks until the next timed pass.
+     */
+    public long getTicksUntilNextPass() {
+        return this.ticksUntilNextPass;
+    }
+
+    /**
+     * @return Returns whether dirty Forges are also flushed whenever a world is saved.
+     */
+    public boolean isFlushingWithWorldSaves() {
+        return this.withWorldSaves;
+    }
+
+}
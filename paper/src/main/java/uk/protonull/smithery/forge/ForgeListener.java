@@ -1,5 +1,6 @@
 package uk.protonull.smithery.forge;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.bukkit.ChatColor;
 import org.bukkit.Effect;
@@ -15,6 +16,7 @@ import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.world.ChunkLoadEvent;
@@ -24,10 +26,11 @@ import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import uk.protonull.smithery.alloys.Alloy;
 import uk.protonull.smithery.utilities.IngredientMatcher;
+import uk.protonull.smithery.utilities.IngredientRegistry;
 import uk.protonull.smithery.alloys.AlloyUtils;
 import uk.protonull.smithery.config.Config;
 import uk.protonull.smithery.utilities.ActionHandler;
-import uk.protonull.smithery.utilities.AmountMap;
+import uk.protonull.smithery.utilities.IntAmountMap;
 import uk.protonull.smithery.utilities.Utilities;
 import vg.civcraft.mc.civmodcore.utilities.CivLogger;
 
@@ -52,7 +55,8 @@ public final class ForgeListener implements Listener {
         if (ForgeUtils.isForgeItem(event.getItemInHand())
                 && event.getBlockPlaced().getState(false) instanceof final Furnace furnace) {
             final var forge = new Forge(furnace);
-            ForgeManager.FORGES.put(forge.getLocation(), forge);
+            ForgeManager.addForge(forge);
+            ForgeManager.updateChunkMarker(furnace.getChunk());
             this.logger.info("New Forge placed at [" + forge.getLocation() + "]");
         }
     }
@@ -61,8 +65,9 @@ public final class ForgeListener implements Listener {
     public void onForgeBreak(final BlockBreakEvent event) {
         final Block block = event.getBlock();
         if (block.getType() == ForgeUtils.FORGE_MATERIAL) {
-            final Forge forge = ForgeManager.removeForge(new ForgeLocation.Static(block));
+            final Forge forge = ForgeManager.removeForge(block);
             if (forge != null) {
+                ForgeManager.updateChunkMarker(block.getChunk());
                 event.getPlayer().sendMessage(ChatColor.GRAY + "You've dismantled that forge.");
                 this.logger.info("Forge at [" + forge.getLocation() + "] has been destroyed.");
                 event.setDropItems(false);
@@ -88,7 +93,7 @@ public final class ForgeListener implements Listener {
         if (clicked == null || clicked.getType() != ForgeUtils.FORGE_MATERIAL) {
             return;
         }
-        final Forge forge = ForgeManager.FORGES.get(new ForgeLocation.Static(clicked));
+        final Forge forge = ForgeManager.getForge(clicked);
         if (forge == null) {
             return;
         }
@@ -114,6 +119,7 @@ public final class ForgeListener implements Listener {
                             furnaceData.setLit(true);
                             furnace.setBlockData(furnaceData);
                             furnace.update();
+                            forge.markDirty();
                             Utilities.setInteractItem(event, new ItemStack(Material.BUCKET));
                         }
                         return;
@@ -124,13 +130,16 @@ public final class ForgeListener implements Listener {
                 // Extracting molten Alloy from the Forge
                 case BUCKET -> {
                     if (ActionHandler.canHandle(forge, player, ActionHandler.Action.COLLECT_FORGE_RESULT)) {
-                        final AmountMap<String> ingredients = forge.getIngredients();
-                        if (ingredients.isEmpty()) {
+                        if (forge.getIngredients().isEmpty()) {
                             player.sendMessage(ChatColor.GRAY + "Nothing to extract from that Forge.");
                             return;
                         }
-                        final Alloy alloy = AlloyUtils.createAlloyFromIngredients(ingredients, forge.getSmeltTime());
-                        ingredients.clear();
+                        final ForgeMatch match = forge.getMatch();
+                        final Alloy alloy = match.evaluate(System.currentTimeMillis());
+                        final String nearestRecipe = match.getRecipe() == null && Config.HINT_NEAREST_RECIPE.get()
+                                ? findNearestRecipeName(forge.getIngredients())
+                                : null;
+                        forge.flushIngredients();
                         final org.bukkit.block.data.type.Furnace furnaceData = ForgeUtils.getFurnaceData(furnace);
                         furnaceData.setLit(false);
                         furnace.setBlockData(furnaceData);
@@ -138,6 +147,10 @@ public final class ForgeListener implements Listener {
                         Utilities.setInteractItem(event, AlloyUtils.newMoltenAlloy(alloy));
                         furnace.getWorld().playEffect(furnace.getLocation(), Effect.BREWING_STAND_BREW, 0);
                         player.sendMessage(ChatColor.GRAY + "You scoop the molten metal out of the forge.");
+                        if (nearestRecipe != null) {
+                            player.sendMessage(ChatColor.GRAY + "It doesn't look quite right... it reminds you of "
+                                    + nearestRecipe + ".");
+                        }
                         return;
                     }
                     player.sendMessage(ChatColor.RED + "You couldn't extract from that Forge.");
@@ -150,7 +163,7 @@ public final class ForgeListener implements Listener {
                         furnaceData.setLit(false);
                         furnace.setBlockData(furnaceData);
                         furnace.update();
-                        forge.getIngredients().clear();
+                        forge.flushIngredients();
                         Utilities.setInteractItem(event, new ItemStack(Material.BUCKET));
                         furnace.getWorld().playEffect(furnace.getLocation(), Effect.BREWING_STAND_BREW, 0);
                         player.sendMessage(ChatColor.GRAY + "The Forge ingredients have been flushed out.");
@@ -164,13 +177,7 @@ public final class ForgeListener implements Listener {
                     final org.bukkit.block.data.type.Furnace furnaceData = ForgeUtils.getFurnaceData(furnace);
                     if (furnaceData.isLit()) {
                         if (ActionHandler.canHandle(forge, player, ActionHandler.Action.READ_FORGE_SMELT_TIME)) {
-                            final long smeltTimeMinutes = TimeUnit.MILLISECONDS.toMinutes(forge.getSmeltTime());
-                            if (smeltTimeMinutes > 1) {
-                                player.sendMessage(ChatColor.GRAY + "This Forge has been smelting for about " + smeltTimeMinutes + " minutes.");
-                            }
-                            else {
-                                player.sendMessage(ChatColor.GRAY + "This Forge has just begun smelting.");
-                            }
+                            player.sendMessage(ChatColor.GRAY + describeSmeltTime(forge, System.currentTimeMillis()));
                             return;
                         }
                         player.sendMessage(ChatColor.GRAY + "You're unsure how long that Forge has been smelting.");
@@ -187,11 +194,57 @@ public final class ForgeListener implements Listener {
             return;
         }
         final Inventory inventory = forge.getInventory();
-        inventory.setItem(0, ForgeUtils.newInsertButton());
+        if (inventory.getViewers().isEmpty()) {
+            forge.snapshotInventory();
+        }
+        inventory.setItem(0, ForgeUtils.newInsertButton(forge));
         player.openInventory(inventory);
         ForgeManager.GUIS.put(inventory, forge);
     }
 
+    /**
+     * Describes how long the given Forge has been smelting, and, if it's forming a recipe, where that is within the
+     * recipe's smelting windows, which are already pinned to timestamps by the Forge's match.
+     */
+    private String describeSmeltTime(final Forge forge,
+                                     final long now) {
+        final long smeltTimeMinutes = TimeUnit.MILLISECONDS.toMinutes(now - forge.getTimeOfLastIngredientInsert());
+        final String elapsed = smeltTimeMinutes > 1
+                ? "This Forge has been smelting for about " + smeltTimeMinutes + " minutes."
+                : "This Forge has just begun smelting.";
+        final ForgeMatch match = forge.getMatch();
+        if (match.getRecipe() == null) {
+            return elapsed;
+        }
+        if (now < match.getMinimumAt()) {
+            return elapsed + " It won't be ready for about another "
+                    + ForgeUtils.toMinutes(match.getMinimumAt() - now) + " minutes.";
+        }
+        if (now < match.getIdealMinimumAt()) {
+            return elapsed + " It'll be at its best in about "
+                    + ForgeUtils.toMinutes(match.getIdealMinimumAt() - now) + " minutes.";
+        }
+        if (now <= match.getIdealMaximumAt()) {
+            return elapsed + " It'll be at its best for about another "
+                    + ForgeUtils.toMinutes(match.getIdealMaximumAt() - now) + " minutes.";
+        }
+        if (now <= match.getMaximumAt()) {
+            return elapsed + " It's past its best, and will be ruined in about "
+                    + ForgeUtils.toMinutes(match.getMaximumAt() - now) + " minutes.";
+        }
+        return elapsed + " It's been smelting for far too long.";
+    }
+
+    /**
+     * @return Returns the name of the recipe nearest to the given ingredients, or null if no recipe is even close.
+     */
+    private String findNearestRecipeName(final IntAmountMap ingredients) {
+        final List<RecipeSimilarityIndex.Neighbour> nearest = Config.getRecipeSnapshot()
+                .getSimilarityIndex()
+                .findNearest(ingredients, 1);
+        return nearest.isEmpty() ? null : nearest.get(0).recipe().getRecipe().name();
+    }
+
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onForgeGUIClick(final InventoryClickEvent event) {
         final Inventory inventory = event.getClickedInventory();
@@ -206,23 +259,36 @@ public final class ForgeListener implements Listener {
         }
         event.setCancelled(true);
         inventory.setItem(0, null); // Remove result button temporarily
-        final AmountMap<String> ingredients = forge.getIngredients();
-        for (final ItemStack ingredient : inventory) {
-            if (!Utilities.isEmptyItem(ingredient)) {
-                final String slug = IngredientMatcher.getIngredientID(ingredient);
-                ingredients.changeAmountBy(slug, ingredient.getAmount());
+        final var added = new IntAmountMap.TotallingArrayMap();
+        final ItemStack[] ingredients = inventory.getContents();
+        final int[] ingredientIDs = IngredientMatcher.getIngredientIDs(ingredients);
+        for (int i = 0; i < ingredients.length; i++) {
+            if (ingredientIDs[i] != IngredientRegistry.UNKNOWN_ID) {
+                added.changeAmountBy(ingredientIDs[i], ingredients[i].getAmount());
             }
         }
         inventory.clear();
-        inventory.setItem(0, ForgeUtils.newInsertButton());
-        if (ingredients.getTotalAmount() < 1) {
+        forge.addIngredients(added);
+        if (forge.getIngredients().getTotalAmount() < 1) {
+            inventory.setItem(0, ForgeUtils.newInsertButton(forge));
             event.getWhoClicked().sendMessage(ChatColor.GRAY + "There's nothing to add to that Forge.");
             return;
         }
         forge.setTimeOfLastIngredientInsert(System.currentTimeMillis());
+        forge.snapshotInventory();
+        inventory.setItem(0, ForgeUtils.newInsertButton(forge));
         event.getWhoClicked().sendMessage(ChatColor.GRAY + "Those ingredients were added to the Forge.");
     }
 
+    @EventHandler
+    public void onForgeGUIClose(final InventoryCloseEvent event) {
+        final Forge forge = ForgeManager.GUIS.get(event.getInventory());
+        if (forge != null) {
+            // The player may have moved items in or out of the matrix
+            forge.markDirtyIfInventoryChanged();
+        }
+    }
+
     @EventHandler(ignoreCancelled = true)
     public void onCauldronInteraction(final PlayerInteractEvent event) {
         if (event.getAction() != Action.RIGHT_CLICK_BLOCK) {
@@ -0,0 +1,79 @@
+package uk.protonull.smithery.forge;
+
+import java.util.concurrent.TimeUnit;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import uk.protonull.smithery.Smithery;
+import uk.protonull.smithery.config.Config;
+import vg.civcraft.mc.civmodcore.utilities.CivLogger;
+
+/**
+ * Loads the Forges within all chunks that were already loaded when Smithery was enabled, but spread across ticks so
+ * that enabling doesn't stall the server. Each tick will only spend up to {@link Config#LOADER_BUDGET} loading.
+ */
+public final class ForgeLoader {
+
+    private final CivLogger logger = CivLogger.getLogger(getClass());
+    private final long budget;
+    private BukkitTask task;
+
+    private long startTime;
+    private int ticks;
+    private int chunks;
+    private int forges;
+
+    public ForgeLoader() {
+        this.budget = Config.LOADER_BUDGET.get();
+    }
+
+    /**
+     * Queues all loaded chunks and begins loading their Forges.
+     *
+     * @param plugin The plugin to register the task with.
+     */
+    public void start(final @NotNull Smithery plugin) {
+        if (this.task != null) {
+            return;
+        }
+        this.startTime = System.nanoTime();
+        final int queued = ForgeManager.queueAllLoadedChunks();
+        this.logger.info("Loading Forges from [" + queued + "] loaded chunks.");
+        this.task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 0L, 1L);
+    }
+
+    /**
+     * Stops loading. Any chunks that have yet to be loaded will remain unloaded.
+     */
+    public void stop() {
+        if (this.task != null) {
+            this.task.cancel();
+            this.task = null;
+        }
+    }
+
+    /**
+     * @return Returns whether this loader is still loading.
+     */
+    public boolean isLoading() {
+        return this.task != null;
+    }
+
+    private void tick() {
+        this.ticks++;
+        final long deadline = System.nanoTime() + this.budget;
+        int loaded;
+        while ((loaded = ForgeManager.loadNextPendingChunk()) != -1) {
+            this.chunks++;
+            this.forges += loaded;
+            if (System.nanoTime() >= deadline) {
+                return;
+            }
+        }
+        stop();
+        this.logger.info("Loaded [" + this.forges + "] Forges from [" + this.chunks + "] chunks in ["
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.startTime) + "ms] over ["
+                + this.ticks + "] ticks.");
+    }
+
+}
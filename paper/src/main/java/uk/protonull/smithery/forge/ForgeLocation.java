@@ -1,23 +1,95 @@
 package uk.protonull.smithery.forge;
 
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.jetbrains.annotations.NotNull;
 
-public abstract class ForgeLocation {
+/**
+ * An immutable, primitive Forge location: an interned world index plus the block's x/y/z packed into a long as per
+ * {@link Block#getBlockKey(int, int, int)}. Use {@link #getWorldIndex(World)} and {@link Block#getBlockKey()} to look
+ * up Forges without allocating a location at all. This is only extended by the deprecated {@link Static}.
+ */
+public class ForgeLocation {
 
-    public abstract @NotNull UUID getWorldUUID();
+    private static final Object2IntMap<UUID> WORLD_INDICES = new Object2IntOpenHashMap<>();
+    private static final List<UUID> WORLD_UUIDS = new ArrayList<>();
 
-    public abstract int getX();
+    static {
+        WORLD_INDICES.defaultReturnValue(-1);
+    }
+
+    private final int worldIndex;
+    private final long blockKey;
 
-    public abstract int getY();
+    public ForgeLocation(final int worldIndex,
+                         final long blockKey) {
+        if (worldIndex < 0 || worldIndex >= WORLD_UUIDS.size()) {
+            throw new IllegalArgumentException("World index [" + worldIndex + "] has not been interned!");
+        }
+        this.worldIndex = worldIndex;
+        this.blockKey = blockKey;
+    }
 
-    public abstract int getZ();
+    public static @NotNull ForgeLocation of(final @NotNull Location location) {
+        return of(location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    public static @NotNull ForgeLocation of(final @NotNull Block block) {
+        return new ForgeLocation(getWorldIndex(block.getWorld()), block.getBlockKey());
+    }
+
+    public static @NotNull ForgeLocation of(final @NotNull World world,
+                                            final int x,
+                                            final int y,
+                                            final int z) {
+        return new ForgeLocation(getWorldIndex(world), Block.getBlockKey(x, y, z));
+    }
+
+    /**
+     * @return Returns the interned index of this location's world.
+     */
+    public final int getWorldIndex() {
+        return this.worldIndex;
+    }
+
+    /**
+     * @return Returns this location's packed block coordinates, as per {@link Block#getBlockKey(int, int, int)}.
+     */
+    public final long getBlockKey() {
+        return this.blockKey;
+    }
+
+    public final @NotNull UUID getWorldUUID() {
+        return WORLD_UUIDS.get(this.worldIndex);
+    }
+
+    public final int getX() {
+        return Block.getBlockKeyX(this.blockKey);
+    }
+
+    public final int getY() {
+        return Block.getBlockKeyY(this.blockKey);
+    }
+
+    public final int getZ() {
+        return Block.getBlockKeyZ(this.blockKey);
+    }
+
+    /**
+     * @return Returns the key of the chunk this location is within, as per {@link Chunk#getChunkKey()}.
+     */
+    public final long getChunkKey() {
+        return Chunk.getChunkKey(getX() >> 4, getZ() >> 4);
+    }
 
     /**
      * Determines whether this location is within the given chunk.
@@ -26,7 +98,7 @@ public abstract class ForgeLocation {
      * @return Returns true if the location is within the chunk.
      */
     public final boolean isWithinChunk(final @NotNull Chunk chunk) {
-        return Objects.equals(getWorldUUID(), chunk.getWorld().getUID())
+        return this.worldIndex == getWorldIndex(chunk.getWorld())
                 && (getX() >> 4) == chunk.getX()
                 && (getZ() >> 4) == chunk.getZ();
     }
@@ -42,31 +114,26 @@ public abstract class ForgeLocation {
             return true;
         }
         if (object instanceof final ForgeLocation other) {
-            return Objects.equals(getWorldUUID(), other.getWorldUUID())
-                    && getX() == other.getX()
-                    && getY() == other.getY()
-                    && getZ() == other.getZ();
+            return this.worldIndex == other.worldIndex
+                    && this.blockKey == other.blockKey;
         }
         return false;
     }
 
     @Override
     public final int hashCode() {
-        return new HashCodeBuilder(41, 11)
-                .append(getWorldUUID())
-                .append(getX())
-                .append(getY())
-                .append(getZ())
-                .toHashCode();
+        return HashCommon.long2int(this.blockKey) * 31 + this.worldIndex;
     }
 
+    /**
+     * ForgeLocation used to be abstract, with this as its concrete implementation, so this is kept for compatibility.
+     * These are equal to, and interchangeable with, any other ForgeLocation.
+     *
+     * @deprecated Use {@link ForgeLocation#of(Block)} and its overloads instead.
+     */
+    @Deprecated
     public static class Static extends ForgeLocation {
 
-        private final UUID worldUUID;
-        private final int x;
-        private final int y;
-        private final int z;
-
         public Static(final @NotNull Location location) {
             this(location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
         }
@@ -86,32 +153,48 @@ public abstract class ForgeLocation {
                       final int x,
                       final int y,
                       final int z) {
-            this.worldUUID = Objects.requireNonNull(worldUUID);
-            this.x = x;
-            this.y = y;
-            this.z = z;
+            super(getWorldIndex(worldUUID), Block.getBlockKey(x, y, z));
         }
 
-        @Override
-        public @NotNull UUID getWorldUUID() {
-            return this.worldUUID;
-        }
+    }
 
-        @Override
-        public int getX() {
-            return this.x;
-        }
+    // ------------------------------------------------------------
+    // World Interning
+    // ------------------------------------------------------------
 
-        @Override
-        public int getY() {
-            return this.y;
-        }
+    /**
+     * Retrieves the interned index of the given world, interning it if necessary. Indexes are dense and stable for
+     * the lifetime of the server, even if the world is unloaded.
+     *
+     * @param world The world to get the index of.
+     * @return Returns the world's index.
+     */
+    public static int getWorldIndex(final @NotNull World world) {
+        return getWorldIndex(world.getUID());
+    }
 
-        @Override
-        public int getZ() {
-            return this.z;
-        }
+    /**
+     * @param worldIndex The interned index of the world.
+     * @return Returns the UUID of the world with that index.
+     */
+    public static @NotNull UUID getWorldUUID(final int worldIndex) {
+        return WORLD_UUIDS.get(worldIndex);
+    }
 
+    /**
+     * Retrieves the interned index of the given world UUID, interning it if necessary.
+     *
+     * @param worldUUID The world UUID to get the index of.
+     * @return Returns the world's index.
+     */
+    public static int getWorldIndex(final @NotNull UUID worldUUID) {
+        int index = WORLD_INDICES.getInt(Objects.requireNonNull(worldUUID));
+        if (index == -1) {
+            index = WORLD_UUIDS.size();
+            WORLD_UUIDS.add(worldUUID);
+            WORLD_INDICES.put(worldUUID, index);
+        }
+        return index;
     }
 
 }
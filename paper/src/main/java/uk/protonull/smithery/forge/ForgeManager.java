@@ -1,17 +1,30 @@
 package uk.protonull.smithery.forge;
 
-import java.util.HashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectArraySet;
+import java.util.ArrayDeque;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import lombok.experimental.UtilityClass;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
+import org.bukkit.NamespacedKey;
 import org.bukkit.World;
+import org.bukkit.block.Block;
 import org.bukkit.block.BlockState;
+import org.bukkit.craftbukkit.v1_18_R2.CraftChunk;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.persistence.PersistentDataType;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import uk.protonull.smithery.Smithery;
 import uk.protonull.smithery.utilities.Utilities;
 import vg.civcraft.mc.civmodcore.utilities.CivLogger;
@@ -21,8 +34,278 @@ public class ForgeManager {
 
     private final CivLogger LOGGER = CivLogger.getLogger(ForgeManager.class);
 
-    public final Map<ForgeLocation, Forge> FORGES = new HashMap<>();
+    /**
+     * All loaded Forges, indexed by {@link ForgeLocation#getWorldIndex()}.
+     */
+    private final List<WorldForges> WORLDS = new ArrayList<>();
     final Map<Inventory, Forge> GUIS = new IdentityHashMap<>();
+    /**
+     * All loaded Forges, keyed by location.
+     *
+     * @deprecated Forges are no longer held in a single map, so this is now a view of the registry. Use
+     *             {@link #getForge(ForgeLocation)}, {@link #addForge(Forge)}, and {@link #removeForge(ForgeLocation)}
+     *             instead. Iterating this view visits every loaded Forge.
+     */
+    @Deprecated
+    public final Map<ForgeLocation, Forge> FORGES = new LegacyForgesView();
+
+    /**
+     * Chunk PDC key that holds the block keys of all Forges within that chunk.
+     */
+    private final NamespacedKey CHUNK_MARKER_KEY = new NamespacedKey("smithery", "forges");
+
+    /**
+     * Forges that have been marked dirty, in the order they were marked, for {@link ForgeAutosaver} to walk through.
+     * Forges within this queue may have since been saved. Nothing is queued unless the autosaver is running.
+     */
+    private final ArrayDeque<Forge> DIRTY_FORGES = new ArrayDeque<>();
+    private boolean IS_DIRTY_QUEUE_ENABLED = false;
+
+    private long WRITES = 0L;
+    private long SKIPPED_WRITES = 0L;
+
+    private static final class WorldForges {
+        /**
+         * Forges keyed by {@link ForgeLocation#getBlockKey()}.
+         */
+        private final Long2ObjectOpenHashMap<Forge> forges = new Long2ObjectOpenHashMap<>();
+        /**
+         * Secondary index of {@link #forges} so that chunk unloads only need to touch the Forges within that chunk.
+         * Keyed by {@link Chunk#getChunkKey()}.
+         */
+        private final Long2ObjectOpenHashMap<List<Forge>> chunks = new Long2ObjectOpenHashMap<>();
+        /**
+         * Chunks that were already loaded when Smithery was enabled, but whose Forges have yet to be loaded by
+         * {@link ForgeLoader}. Keyed by {@link Chunk#getChunkKey()}.
+         */
+        private final LongOpenHashSet pendingChunks = new LongOpenHashSet();
+    }
+
+    /**
+     * The order in which {@link ForgeLoader} should work through pending chunks.
+     */
+    private final ArrayDeque<Chunk> PENDING_CHUNKS = new ArrayDeque<>();
+
+    /**
+     * Adapts the registry to the map that {@link #FORGES} used to be. Putting and removing Forges go through
+     * {@link #addForge(Forge)} and {@link #removeForge(ForgeLocation)}, and update the chunk marker, as the map's
+     * users were expected to do.
+     */
+    private static final class LegacyForgesView extends AbstractMap<ForgeLocation, Forge> {
+        @Override
+        public int size() {
+            return getForgeCount();
+        }
+        @Override
+        public boolean containsKey(final Object key) {
+            return get(key) != null;
+        }
+        @Override
+        public Forge get(final Object key) {
+            return key instanceof final ForgeLocation location ? getForge(location) : null;
+        }
+        @Override
+        public Forge put(final @NotNull ForgeLocation location,
+                         final @NotNull Forge forge) {
+            if (!location.equals(forge.getLocation())) {
+                throw new IllegalArgumentException("Forge at [" + forge.getLocation() + "] cannot be put at ["
+                        + location + "]!");
+            }
+            final Forge previous = addForge(forge);
+            updateChunkMarker(forge.getFurnace().getChunk());
+            return previous;
+        }
+        @Override
+        public Forge remove(final Object key) {
+            if (!(key instanceof final ForgeLocation location)) {
+                return null;
+            }
+            final Forge forge = removeForge(location);
+            if (forge != null) {
+                updateChunkMarker(forge.getFurnace().getChunk());
+            }
+            return forge;
+        }
+        @Override
+        public @NotNull Set<Map.Entry<ForgeLocation, Forge>> entrySet() {
+            final var entries = new ArrayList<Map.Entry<ForgeLocation, Forge>>(getForgeCount());
+            for (final WorldForges world : WORLDS) {
+                if (world != null) {
+                    for (final Forge forge : world.forges.values()) {
+                        entries.add(Map.entry(forge.getLocation(), forge));
+                    }
+                }
+            }
+            return Collections.unmodifiableSet(new ObjectArraySet<>(entries.toArray(), entries.size()));
+        }
+    }
+
+    private @Nullable WorldForges getWorldForges(final int worldIndex) {
+        return worldIndex < WORLDS.size() ? WORLDS.get(worldIndex) : null;
+    }
+
+    private @NotNull WorldForges getOrCreateWorldForges(final int worldIndex) {
+        while (WORLDS.size() <= worldIndex) {
+            WORLDS.add(null);
+        }
+        WorldForges world = WORLDS.get(worldIndex);
+        if (world == null) {
+            WORLDS.set(worldIndex, world = new WorldForges());
+        }
+        return world;
+    }
+
+    /**
+     * Retrieves the Forge at the given location.
+     *
+     * @param worldIndex The interned index of the world, as per {@link ForgeLocation#getWorldIndex(World)}.
+     * @param blockKey The packed block coordinates, as per {@link Block#getBlockKey()}.
+     * @return Returns the Forge at that location, or null.
+     */
+    public @Nullable Forge getForge(final int worldIndex,
+                                    final long blockKey) {
+        final WorldForges world = getWorldForges(worldIndex);
+        if (world == null) {
+            return null;
+        }
+        loadPendingChunk(world, worldIndex, blockKey);
+        return world.forges.get(blockKey);
+    }
+
+    /**
+     * Retrieves the Forge at the given location.
+     *
+     * @param location The location of the Forge.
+     * @return Returns the Forge at that location, or null.
+     */
+    public @Nullable Forge getForge(final @NotNull ForgeLocation location) {
+        return getForge(location.getWorldIndex(), location.getBlockKey());
+    }
+
+    /**
+     * Retrieves the Forge at the given block. This does not allocate.
+     *
+     * @param block The block of the Forge.
+     * @return Returns the Forge at that block, or null.
+     */
+    public @Nullable Forge getForge(final @NotNull Block block) {
+        return getForge(ForgeLocation.getWorldIndex(block.getWorld()), block.getBlockKey());
+    }
+
+    /**
+     * @return Returns the amount of loaded Forges.
+     */
+    public int getForgeCount() {
+        int count = 0;
+        for (final WorldForges world : WORLDS) {
+            if (world != null) {
+                count += world.forges.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds a Forge to the registry, replacing any Forge that was already at that location.
+     *
+     * @param forge The Forge to add.
+     * @return Returns the Forge that was replaced, or null.
+     */
+    public Forge addForge(final @NotNull Forge forge) {
+        final ForgeLocation location = forge.getLocation();
+        final WorldForges world = getOrCreateWorldForges(location.getWorldIndex());
+        // Prevent the pending chunk's Forges from being loaded over the top of this one later
+        loadPendingChunk(world, location.getWorldIndex(), location.getBlockKey());
+        final Forge previous = world.forges.put(location.getBlockKey(), forge);
+        if (previous != null) {
+            removeFromChunkIndex(world, previous);
+        }
+        world.chunks.computeIfAbsent(location.getChunkKey(), (final long chunkKey) -> new ArrayList<>(1)).add(forge);
+        if (forge.isDirty()) {
+            queueDirtyForge(forge);
+        }
+        return previous;
+    }
+
+    /**
+     * @param forge The Forge to check.
+     * @return Returns true if the given Forge is the one currently registered at its location.
+     */
+    public boolean isForgeLoaded(final @NotNull Forge forge) {
+        return getForge(forge.getLocation()) == forge;
+    }
+
+    // ------------------------------------------------------------
+    // Dirty Queue
+    // ------------------------------------------------------------
+
+    /**
+     * Enables or disables the dirty queue. Only {@link ForgeAutosaver} drains the queue, so it's disabled (and emptied)
+     * while the autosaver isn't running.
+     *
+     * @param enabled Whether dirty Forges should be queued.
+     */
+    public void setDirtyQueueEnabled(final boolean enabled) {
+        IS_DIRTY_QUEUE_ENABLED = enabled;
+        if (!enabled) {
+            clearDirtyQueue();
+        }
+    }
+
+    void queueDirtyForge(final @NotNull Forge forge) {
+        if (IS_DIRTY_QUEUE_ENABLED && !forge.queuedForSave) {
+            forge.queuedForSave = true;
+            DIRTY_FORGES.add(forge);
+        }
+    }
+
+    private void clearDirtyQueue() {
+        for (final Forge forge : DIRTY_FORGES) {
+            forge.queuedForSave = false;
+        }
+        DIRTY_FORGES.clear();
+    }
+
+    /**
+     * Removes the given unloaded Forges from the dirty queue, so that the queue doesn't keep them alive.
+     */
+    private void dequeueDirtyForges(final @NotNull List<Forge> forges) {
+        boolean anyQueued = false;
+        for (final Forge forge : forges) {
+            if (forge.queuedForSave) {
+                forge.queuedForSave = false;
+                anyQueued = true;
+            }
+        }
+        if (anyQueued) {
+            DIRTY_FORGES.removeIf((final Forge queued) -> !queued.queuedForSave);
+        }
+    }
+
+    /**
+     * Pulls the next Forge that still needs saving from the dirty queue. Forges that have since been saved are
+     * discarded along the way.
+     *
+     * @return Returns the next dirty Forge, or null if there are none.
+     */
+    public @Nullable Forge pollDirtyForge() {
+        Forge forge;
+        while ((forge = DIRTY_FORGES.poll()) != null) {
+            forge.queuedForSave = false;
+            if (forge.isDirty() && isForgeLoaded(forge)) {
+                return forge;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Returns the size of the dirty queue. This may overestimate since Forges within the queue may have since
+     *         been saved.
+     */
+    public int getDirtyForgeCount() {
+        return DIRTY_FORGES.size();
+    }
 
     /**
      * Attempts to remove the Forge at the given location.
@@ -30,64 +313,286 @@ public class ForgeManager {
      * @param location The location of the Forge.
      */
     public Forge removeForge(final @NotNull ForgeLocation location) {
-        final Forge forge = FORGES.remove(location);
+        return removeForge(location.getWorldIndex(), location.getBlockKey());
+    }
+
+    /**
+     * Attempts to remove the Forge at the given block.
+     *
+     * @param block The block of the Forge.
+     */
+    public Forge removeForge(final @NotNull Block block) {
+        return removeForge(ForgeLocation.getWorldIndex(block.getWorld()), block.getBlockKey());
+    }
+
+    private Forge removeForge(final int worldIndex,
+                              final long blockKey) {
+        final WorldForges world = getWorldForges(worldIndex);
+        if (world == null) {
+            return null;
+        }
+        loadPendingChunk(world, worldIndex, blockKey);
+        final Forge forge = world.forges.remove(blockKey);
         if (forge != null) {
+            removeFromChunkIndex(world, forge);
             forge.closeInventory();
+            dequeueDirtyForges(List.of(forge));
         }
         return forge;
     }
 
+    private void removeFromChunkIndex(final @NotNull WorldForges world,
+                                      final @NotNull Forge forge) {
+        final long chunkKey = forge.getLocation().getChunkKey();
+        final List<Forge> forges = world.chunks.get(chunkKey);
+        if (forges != null && forges.remove(forge) && forges.isEmpty()) {
+            world.chunks.remove(chunkKey);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Pending Chunks
+    // ------------------------------------------------------------
+
     /**
-     * Loads all Forges from all worlds. Please only use this within {@link Smithery#onEnable()}.
+     * Queues all currently loaded chunks for {@link ForgeLoader} to load Forges from. Until a queued chunk has been
+     * loaded, any attempt to get, add, or remove a Forge within it will load that chunk immediately.
+     *
+     * @return Returns the amount of chunks queued.
      */
-    public void loadAllForges() {
-        FORGES.clear();
+    public int queueAllLoadedChunks() {
+        WORLDS.clear();
+        clearDirtyQueue();
+        PENDING_CHUNKS.clear();
         for (final World world : Bukkit.getWorlds()) {
+            final WorldForges forges = getOrCreateWorldForges(ForgeLocation.getWorldIndex(world));
             for (final Chunk chunk : world.getLoadedChunks()) {
-                loadForgesInChunk(chunk);
+                forges.pendingChunks.add(chunk.getChunkKey());
+                PENDING_CHUNKS.add(chunk);
+            }
+        }
+        return PENDING_CHUNKS.size();
+    }
+
+    /**
+     * Loads the Forges of the next pending chunk.
+     *
+     * @return Returns the amount of Forges loaded, or -1 if there are no more pending chunks.
+     */
+    public int loadNextPendingChunk() {
+        Chunk chunk;
+        while ((chunk = PENDING_CHUNKS.poll()) != null) {
+            final WorldForges world = getWorldForges(ForgeLocation.getWorldIndex(chunk.getWorld()));
+            // The chunk may have since been loaded early or unloaded
+            if (world != null && world.pendingChunks.remove(chunk.getChunkKey())) {
+                return loadForgesInChunk(chunk);
             }
         }
+        return -1;
+    }
+
+    /**
+     * @return Returns the amount of chunks that are still pending.
+     */
+    public int getPendingChunkCount() {
+        return PENDING_CHUNKS.size();
+    }
+
+    private void loadPendingChunk(final @NotNull WorldForges world,
+                                  final int worldIndex,
+                                  final long blockKey) {
+        if (world.pendingChunks.isEmpty()) {
+            return;
+        }
+        final int chunkX = Block.getBlockKeyX(blockKey) >> 4;
+        final int chunkZ = Block.getBlockKeyZ(blockKey) >> 4;
+        if (!world.pendingChunks.remove(Chunk.getChunkKey(chunkX, chunkZ))) {
+            return;
+        }
+        final World bukkitWorld = Bukkit.getWorld(ForgeLocation.getWorldUUID(worldIndex));
+        if (bukkitWorld != null && bukkitWorld.isChunkLoaded(chunkX, chunkZ)) {
+            loadForgesInChunk(bukkitWorld.getChunkAt(chunkX, chunkZ));
+        }
     }
 
     /**
-     * Loads all Forges from a given chunk.
+     * Loads all Forges from all worlds synchronously. Please only use this within {@link Smithery#onEnable()}, though
+     * {@link ForgeLoader} is preferred.
+     */
+    public void loadAllForges() {
+        queueAllLoadedChunks();
+        while (loadNextPendingChunk() != -1) {
+            // Keep loading
+        }
+    }
+
+    /**
+     * Loads all Forges from a given chunk. Chunks that have a Forge marker will only have their marked positions
+     * checked, whereas chunks without a marker (ie: saved before markers existed) will be scanned and then marked.
      *
      * @param chunk The chunk to load Forges from.
+     * @return Returns the amount of Forges loaded.
      */
-    public void loadForgesInChunk(final @NotNull Chunk chunk) {
-        for (final BlockState state : chunk.getTileEntities(false)) {
-            if (state.getType() != ForgeUtils.FORGE_MATERIAL) {
+    public int loadForgesInChunk(final @NotNull Chunk chunk) {
+        final long[] marker = chunk.getPersistentDataContainer().get(CHUNK_MARKER_KEY, PersistentDataType.LONG_ARRAY);
+        if (marker == null) {
+            return migrateChunk(chunk);
+        }
+        if (marker.length == 0) {
+            return 0;
+        }
+        int loaded = 0;
+        boolean isMarkerStale = false;
+        for (final long blockKey : marker) {
+            final Block block = chunk.getBlock(
+                    Block.getBlockKeyX(blockKey) & 15,
+                    Block.getBlockKeyY(blockKey),
+                    Block.getBlockKeyZ(blockKey) & 15);
+            if (block.getType() != ForgeUtils.FORGE_MATERIAL
+                    || !(block.getState(false) instanceof final org.bukkit.block.Furnace furnace)
+                    || !loadForge(furnace)) {
+                isMarkerStale = true;
                 continue;
             }
-            final var furnace = (org.bukkit.block.Furnace) state;
-            final PersistentDataContainer forgePDC = furnace
-                    .getPersistentDataContainer()
-                    .get(Forge.FORGE_KEY, PersistentDataType.TAG_CONTAINER);
-            if (forgePDC == null) {
-                continue;
+            loaded++;
+        }
+        if (isMarkerStale) {
+            LOGGER.warning("Chunk [" + chunk.getX() + "," + chunk.getZ() + "] had a stale Forge marker, updating.");
+            updateChunkMarker(chunk);
+        }
+        return loaded;
+    }
+
+    /**
+     * Scans every tile entity within a chunk for Forges, then marks the chunk so that future loads can skip the scan.
+     * This is only necessary for chunks saved before Forge markers existed.
+     *
+     * @param chunk The chunk to migrate.
+     * @return Returns the amount of Forges loaded.
+     */
+    private int migrateChunk(final @NotNull Chunk chunk) {
+        int loaded = 0;
+        for (final BlockState state : chunk.getTileEntities(false)) {
+            if (state.getType() == ForgeUtils.FORGE_MATERIAL && loadForge((org.bukkit.block.Furnace) state)) {
+                loaded++;
+            }
+        }
+        updateChunkMarker(chunk);
+        return loaded;
+    }
+
+    private boolean loadForge(final @NotNull org.bukkit.block.Furnace furnace) {
+        final PersistentDataContainer forgePDC = furnace
+                .getPersistentDataContainer()
+                .get(Forge.FORGE_KEY, PersistentDataType.TAG_CONTAINER);
+        if (forgePDC == null) {
+            return false;
+        }
+        final var forge = new Forge(furnace);
+        // Decode before adding so that the Forge isn't queued as dirty
+        forge.fromNBT(Utilities.fromPDC(forgePDC));
+        if (addForge(forge) != null) {
+            LOGGER.warning("Forge at [" + forge.getLocation() + "] was just replaced on chunk load o.o'");
+        }
+        //LOGGER.info("Forge at [" + forge.getLocation() + "] has been loaded.");
+        return true;
+    }
+
+    /**
+     * Updates the given chunk's Forge marker to reflect the Forges currently loaded within it. Call this whenever a
+     * Forge is placed or broken.
+     *
+     * @param chunk The chunk to update the marker of.
+     */
+    public void updateChunkMarker(final @NotNull Chunk chunk) {
+        final WorldForges world = getWorldForges(ForgeLocation.getWorldIndex(chunk.getWorld()));
+        writeChunkMarker(chunk, world == null ? null : world.chunks.get(chunk.getChunkKey()));
+    }
+
+    private void writeChunkMarker(final @NotNull Chunk chunk,
+                                  final List<Forge> forges) {
+        final long[] marker;
+        if (forges == null || forges.isEmpty()) {
+            marker = new long[0];
+        }
+        else {
+            marker = new long[forges.size()];
+            for (int i = 0; i < marker.length; i++) {
+                marker[i] = forges.get(i).getLocation().getBlockKey();
             }
-            final var forge = new Forge(furnace);
-            FORGES.compute(forge.getLocation(),
-                    (final ForgeLocation location, final Forge currentForge) -> {
-                        if (currentForge != null) {
-                            LOGGER.warning("Forge at [" + location + "] was just replaced on chunk load o.o'");
-                        }
-                        return forge;
-                    });
-            forge.fromNBT(Utilities.fromPDC(forgePDC));
-            //LOGGER.info("Forge at [" + forge.getLocation() + "] has been loaded.");
         }
+        final PersistentDataContainer pdc = chunk.getPersistentDataContainer();
+        final long[] existing = pdc.get(CHUNK_MARKER_KEY, PersistentDataType.LONG_ARRAY);
+        if (existing != null && Arrays.equals(existing, marker)) {
+            return;
+        }
+        pdc.set(CHUNK_MARKER_KEY, PersistentDataType.LONG_ARRAY, marker);
+        markChunkUnsaved(chunk);
     }
 
     /**
-     * Stores, then clears, all loaded Forges. Please only use this within {@link Smithery#onDisable()}.
+     * PDC changes, whether to a chunk or a block entity, don't flag the chunk for saving by themselves.
      */
-    public void saveAllForges() {
-        FORGES.values().removeIf((final Forge forge) -> {
-            forge.closeInventory();
+    private void markChunkUnsaved(final @NotNull Chunk chunk) {
+        ((CraftChunk) chunk).getHandle().setUnsaved(true);
+    }
+
+    /**
+     * Stores the given Forge, but only if it has changed since it was last loaded or saved.
+     *
+     * @param forge The Forge to save.
+     * @return Returns true if the Forge was actually written.
+     */
+    public boolean saveForgeIfDirty(final @NotNull Forge forge) {
+        if (forge.isDirty()) {
             forge.saveForge();
+            markChunkUnsaved(forge.getFurnace().getChunk());
+            WRITES++;
             return true;
-        });
+        }
+        SKIPPED_WRITES++;
+        return false;
+    }
+
+    /**
+     * @return Returns how many Forges have been written via {@link #saveForgeIfDirty(Forge)}.
+     */
+    public long getWriteCount() {
+        return WRITES;
+    }
+
+    /**
+     * @return Returns how many Forge writes were skipped by {@link #saveForgeIfDirty(Forge)} since those Forges hadn't
+     *         changed.
+     */
+    public long getSkippedWriteCount() {
+        return SKIPPED_WRITES;
+    }
+
+    /**
+     * Stores, then clears, all loaded Forges. Please only use this within {@link Smithery#onDisable()}.
+     */
+    public void saveAllForges() {
+        int saved = 0;
+        int skipped = 0;
+        for (final WorldForges world : WORLDS) {
+            if (world == null) {
+                continue;
+            }
+            for (final Forge forge : world.forges.values()) {
+                forge.closeInventory();
+                if (saveForgeIfDirty(forge)) {
+                    saved++;
+                }
+                else {
+                    skipped++;
+                }
+            }
+        }
+        WORLDS.clear();
+        clearDirtyQueue();
+        PENDING_CHUNKS.clear();
+        LOGGER.info("Saved [" + saved + "] Forges, skipped [" + skipped + "] unchanged Forges.");
     }
 
     /**
@@ -96,15 +601,24 @@ public class ForgeManager {
      * @param chunk The chunk to use as a coordinate clamp to match Forges against.
      */
     public void saveForgesInChunk(final @NotNull Chunk chunk) {
-        Utilities.removeIf(FORGES, (final ForgeLocation location, final Forge forge) -> {
-            if (location.isWithinChunk(chunk)) {
-                forge.closeInventory();
-                forge.saveForge();
-                //LOGGER.info("Forge at [" + location + "] has been unloaded.");
-                return true;
-            }
-            return false;
-        });
+        final WorldForges world = getWorldForges(ForgeLocation.getWorldIndex(chunk.getWorld()));
+        if (world == null) {
+            return;
+        }
+        // Its Forges were never loaded, so there's nothing to save
+        world.pendingChunks.remove(chunk.getChunkKey());
+        final List<Forge> forges = world.chunks.remove(chunk.getChunkKey());
+        if (forges == null) {
+            return;
+        }
+        writeChunkMarker(chunk, forges);
+        for (final Forge forge : forges) {
+            world.forges.remove(forge.getLocation().getBlockKey(), forge);
+            forge.closeInventory();
+            saveForgeIfDirty(forge);
+            //LOGGER.info("Forge at [" + forge.getLocation() + "] has been unloaded.");
+        }
+        dequeueDirtyForges(forges);
     }
 
 }
@@ -0,0 +1,207 @@
+package uk.protonull.smithery.forge;
+
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.protonull.smithery.alloys.Alloy;
+import uk.protonull.smithery.forge.RecipeEvaluator.CompiledRecipe;
+import uk.protonull.smithery.utilities.IntAmountMap;
+
+/**
+ * A Forge's incrementally maintained recipe match. The candidate recipes (those that use every ingredient inserted so
+ * far) are narrowed as each new ingredient is inserted, and when one of them uses exactly the Forge's ingredients, it
+ * becomes the match and its smelting windows are pinned to absolute timestamps. Extracting an Alloy is then O(1).
+ */
+public final class ForgeMatch {
+
+    private final RecipeEvaluator evaluator;
+    /**
+     * The recipes that could still be formed, or null if nothing has been inserted yet and every recipe could be.
+     * This is the evaluator's own list after the first insert, and {@link #narrowed} after that.
+     */
+    private List<CompiledRecipe> candidates;
+    private final ObjectArrayList<CompiledRecipe> narrowed = new ObjectArrayList<>();
+    private CompiledRecipe recipe;
+    private boolean amountsMatch;
+    private long timeOfLastIngredientInsert;
+    private long minimumAt = -1L;
+    private long idealMinimumAt = -1L;
+    private long idealMaximumAt = -1L;
+    private long maximumAt = -1L;
+
+    ForgeMatch(final @NotNull RecipeEvaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Computes a match from scratch, such as when a Forge is loaded or the recipes have changed.
+     *
+     * @param evaluator The evaluator to match against.
+     * @param ingredients The Forge's ingredients.
+     * @param timeOfLastIngredientInsert The timestamp (in milliseconds) of when the last ingredient was inserted.
+     * @return Returns a new match.
+     */
+    static @NotNull ForgeMatch compute(final @NotNull RecipeEvaluator evaluator,
+                                       final @NotNull IntAmountMap ingredients,
+                                       final long timeOfLastIngredientInsert) {
+        final var match = new ForgeMatch(evaluator);
+        for (final IntIterator iterator = ingredients.keySet().iterator(); iterator.hasNext();) {
+            match.narrow(iterator.nextInt());
+        }
+        match.resolve(ingredients, timeOfLastIngredientInsert);
+        return match;
+    }
+
+    /**
+     * @return Returns the evaluator this match was computed against.
+     */
+    @NotNull RecipeEvaluator getEvaluator() {
+        return this.evaluator;
+    }
+
+    /**
+     * Narrows the candidates down to those recipes that use the given, newly inserted ingredient.
+     *
+     * @param ingredientID The newly inserted ingredient.
+     */
+    void narrow(final int ingredientID) {
+        if (this.candidates == null) {
+            this.candidates = this.evaluator.getRecipesUsing(ingredientID);
+            return;
+        }
+        if (this.candidates != this.narrowed) {
+            // The evaluator's list is shared, so copy what's left of it into this match's own list
+            this.narrowed.clear();
+            for (final CompiledRecipe candidate : this.candidates) {
+                if (candidate.containsIngredient(ingredientID)) {
+                    this.narrowed.add(candidate);
+                }
+            }
+            this.candidates = this.narrowed;
+            return;
+        }
+        int kept = 0;
+        for (int i = 0; i < this.narrowed.size(); i++) {
+            final CompiledRecipe candidate = this.narrowed.get(i);
+            if (candidate.containsIngredient(ingredientID)) {
+                this.narrowed.set(kept++, candidate);
+            }
+        }
+        this.narrowed.size(kept);
+    }
+
+    /**
+     * Resolves which candidate, if any, uses exactly the Forge's ingredients. Since every candidate uses all the
+     * Forge's ingredients, that's whichever candidate has as many ingredients as the Forge does.
+     *
+     * @param ingredients The Forge's ingredients.
+     * @param timeOfLastIngredientInsert The timestamp (in milliseconds) of when the last ingredient was inserted.
+     */
+    void resolve(final @NotNull IntAmountMap ingredients,
+                 final long timeOfLastIngredientInsert) {
+        clearRecipe();
+        this.timeOfLastIngredientInsert = timeOfLastIngredientInsert;
+        if (this.candidates == null) {
+            return;
+        }
+        final int ingredientCount = ingredients.size();
+        for (final CompiledRecipe candidate : this.candidates) {
+            if (candidate.getIngredientCount() == ingredientCount) {
+                this.recipe = candidate;
+                this.amountsMatch = candidate.doAmountsMatch(ingredients);
+                this.minimumAt = timeOfLastIngredientInsert + candidate.getMinimumTime();
+                this.idealMinimumAt = timeOfLastIngredientInsert + candidate.getIdealMinimumTime();
+                this.idealMaximumAt = timeOfLastIngredientInsert + candidate.getIdealMaximumTime();
+                this.maximumAt = timeOfLastIngredientInsert + candidate.getMaximumTime();
+                return;
+            }
+        }
+    }
+
+    private void clearRecipe() {
+        this.recipe = null;
+        this.amountsMatch = false;
+        this.minimumAt = -1L;
+        this.idealMinimumAt = -1L;
+        this.idealMaximumAt = -1L;
+        this.maximumAt = -1L;
+    }
+
+    /**
+     * Resets this match to that of an empty Forge.
+     */
+    void reset() {
+        this.candidates = null;
+        this.narrowed.clear();
+        this.timeOfLastIngredientInsert = 0L;
+        clearRecipe();
+    }
+
+    /**
+     * @return Returns the recipes that could still be formed by inserting more ingredients, or null if nothing has
+     *         been inserted yet. This list is narrowed in place as ingredients are inserted, so must not be kept.
+     */
+    public @Nullable List<CompiledRecipe> getCandidates() {
+        return this.candidates;
+    }
+
+    /**
+     * @return Returns the recipe currently forming, or null if the ingredients don't match any recipe.
+     */
+    public @Nullable CompiledRecipe getRecipe() {
+        return this.recipe;
+    }
+
+    /**
+     * @return Returns whether the ingredient amounts exactly match those of {@link #getRecipe()}.
+     */
+    public boolean doAmountsMatch() {
+        return this.amountsMatch;
+    }
+
+    /**
+     * @return Returns the timestamp (in milliseconds) when the smelt stops being slag, or -1 if nothing is forming.
+     */
+    public long getMinimumAt() {
+        return this.minimumAt;
+    }
+
+    /**
+     * @return Returns the timestamp (in milliseconds) when the best window opens, or -1 if nothing is forming.
+     */
+    public long getIdealMinimumAt() {
+        return this.idealMinimumAt;
+    }
+
+    /**
+     * @return Returns the timestamp (in milliseconds) when the best window closes, or -1 if nothing is forming.
+     */
+    public long getIdealMaximumAt() {
+        return this.idealMaximumAt;
+    }
+
+    /**
+     * @return Returns the timestamp (in milliseconds) when the smelt turns to slag, or -1 if nothing is forming.
+     */
+    public long getMaximumAt() {
+        return this.maximumAt;
+    }
+
+    /**
+     * Evaluates what Alloy would be extracted at the given time, rolling the recipe's fail chance randomly.
+     *
+     * @param now The current timestamp (in milliseconds).
+     * @return Returns the resulting Alloy, which may be slag.
+     */
+    public @NotNull Alloy evaluate(final long now) {
+        if (this.recipe == null) {
+            return Alloy.SLAG;
+        }
+        return this.evaluator.evaluate(this.recipe, this.amountsMatch, now - this.timeOfLastIngredientInsert,
+                ThreadLocalRandom.current().nextDouble(1d, 100d));
+    }
+
+}
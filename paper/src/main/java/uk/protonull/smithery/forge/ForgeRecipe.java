@@ -1,14 +1,14 @@
 package uk.protonull.smithery.forge;
 
 import org.apache.commons.lang3.StringUtils;
-import uk.protonull.smithery.utilities.AmountMap;
+import uk.protonull.smithery.utilities.IntAmountMap;
 
 public record ForgeRecipe(String slug,
                           String name,
                           int yield,
                           long cookTime,
                           double failChance,
-                          AmountMap<String> ingredients) {
+                          IntAmountMap ingredients) {
 
     public ForgeRecipe {
         if (StringUtils.isBlank(slug)) {
@@ -21,7 +21,7 @@ public record ForgeRecipe(String slug,
         if (ingredients == null) {
             throw new IllegalArgumentException("Ingredients cannot be null!");
         }
-        ingredients = new AmountMap.Unmodifiable<>(ingredients);
+        ingredients = new IntAmountMap.Unmodifiable(ingredients);
     }
 
 }
@@ -1,6 +1,8 @@
 package uk.protonull.smithery.forge;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import lombok.experimental.UtilityClass;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
@@ -20,10 +22,23 @@ public class ForgeUtils {
 
     public final Material FORGE_MATERIAL = Material.BLAST_FURNACE;
 
+    /**
+     * Item prototypes, which are built on first use and only ever handed out as clones.
+     */
+    private ItemStack FORGE_ITEM_PROTOTYPE = null;
+    private ItemStack INSERT_BUTTON_PROTOTYPE = null;
+
     /**
      * @return Returns a newly generated Forge (custom furnace).
      */
     public @NotNull ItemStack newForgeItem() {
+        if (FORGE_ITEM_PROTOTYPE == null) {
+            FORGE_ITEM_PROTOTYPE = buildForgeItem();
+        }
+        return FORGE_ITEM_PROTOTYPE.clone();
+    }
+
+    private @NotNull ItemStack buildForgeItem() {
         final var item = new ItemStack(FORGE_MATERIAL);
         item.editMeta((final ItemMeta meta) -> {
             meta.displayName(Component.text()
@@ -90,10 +105,22 @@ public class ForgeUtils {
     // GUI
     // ------------------------------------------------------------
 
+    private final Component EMPTY_PREVIEW = previewLine("The Forge is empty.");
+    private final Component SLAG_PREVIEW = previewLine("Currently forming: slag");
+    private final Component UNRECOGNISED_PREVIEW = previewLine("Currently forming: nothing recognisable yet");
+    private final Component WINDOW_PASSED_PREVIEW = previewLine("Best window has passed");
+
     /**
      * @return Returns a newly generated "Insert" button for the Forge GUI.
      */
     public @NotNull ItemStack newInsertButton() {
+        if (INSERT_BUTTON_PROTOTYPE == null) {
+            INSERT_BUTTON_PROTOTYPE = buildInsertButton();
+        }
+        return INSERT_BUTTON_PROTOTYPE.clone();
+    }
+
+    private @NotNull ItemStack buildInsertButton() {
         final var item = new ItemStack(Material.LIME_DYE);
         item.editMeta((final ItemMeta meta) -> {
             meta.displayName(Component.text()
@@ -106,4 +133,63 @@ public class ForgeUtils {
         return item;
     }
 
+    /**
+     * @param forge The Forge whose match to preview.
+     * @return Returns a newly generated "Insert" button for the Forge GUI, previewing what the Forge is forming.
+     */
+    public @NotNull ItemStack newInsertButton(final @NotNull Forge forge) {
+        final ItemStack item = newInsertButton();
+        final List<Component> preview = previewMatch(forge.getMatch(), System.currentTimeMillis());
+        item.editMeta((final ItemMeta meta) -> {
+            final var lore = new ArrayList<Component>();
+            final List<Component> existing = meta.lore();
+            if (existing != null) {
+                lore.addAll(existing);
+            }
+            lore.addAll(preview);
+            meta.lore(lore);
+        });
+        return item;
+    }
+
+    private @NotNull List<Component> previewMatch(final @NotNull ForgeMatch match,
+                                                  final long now) {
+        final RecipeEvaluator.CompiledRecipe recipe = match.getRecipe();
+        if (recipe == null) {
+            final List<RecipeEvaluator.CompiledRecipe> candidates = match.getCandidates();
+            if (candidates == null) {
+                return List.of(EMPTY_PREVIEW);
+            }
+            return List.of(candidates.isEmpty() ? SLAG_PREVIEW : UNRECOGNISED_PREVIEW);
+        }
+        final Component window;
+        if (now < match.getIdealMinimumAt()) {
+            window = previewLine("Best window in " + toMinutes(match.getIdealMinimumAt() - now) + " minutes");
+        }
+        else if (now <= match.getIdealMaximumAt()) {
+            window = previewLine("Best window closes in " + toMinutes(match.getIdealMaximumAt() - now) + " minutes");
+        }
+        else {
+            window = WINDOW_PASSED_PREVIEW;
+        }
+        return List.of(
+                previewLine("Currently forming: " + recipe.getRecipe().name()),
+                window);
+    }
+
+    private @NotNull Component previewLine(final @NotNull String content) {
+        return Component.text()
+                .decoration(TextDecoration.ITALIC, TextDecoration.State.FALSE)
+                .color(NamedTextColor.GRAY)
+                .content(content)
+                .build();
+    }
+
+    /**
+     * @return Returns the given milliseconds as whole minutes, rounded up.
+     */
+    long toMinutes(final long millis) {
+        return (millis + TimeUnit.MINUTES.toMillis(1) - 1L) / TimeUnit.MINUTES.toMillis(1);
+    }
+
 }
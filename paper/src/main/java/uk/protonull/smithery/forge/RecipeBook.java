@@ -0,0 +1,269 @@
+package uk.protonull.smithery.forge;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMaps;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMaps;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenCustomHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.protonull.smithery.alloys.Alloy;
+import uk.protonull.smithery.alloys.AlloyQuality;
+import uk.protonull.smithery.config.Config;
+import uk.protonull.smithery.utilities.IngredientRegistry;
+import vg.civcraft.mc.civmodcore.utilities.CivLogger;
+
+/**
+ * An immutable set of Forge recipes, indexed for fast lookup.
+ */
+public final class RecipeBook {
+
+    private static final CivLogger LOGGER = CivLogger.getLogger(RecipeBook.class);
+    /**
+     * Alloys of the best quality have no suffix in their key, see {@link Alloy#generateKey()}.
+     */
+    private static final String BEST_QUALITY_SUFFIX = ":" + AlloyQuality.BEST.name();
+
+    private final List<ForgeRecipe> recipes;
+    /**
+     * Recipes keyed by their sorted ingredient IDs.
+     */
+    private final Map<int[], ForgeRecipe> bySignature;
+    private final Map<String, ForgeRecipe> bySlug;
+    /**
+     * All recipe slugs in sorted order, so that all slugs sharing a prefix are contiguous.
+     */
+    private final List<String> sortedSlugs;
+    /**
+     * Recipes keyed by each of their ingredient IDs, with each list in slug order.
+     */
+    private final Int2ObjectMap<List<ForgeRecipe>> byIngredient;
+    /**
+     * The names of all ingredients used by any recipe, in sorted order.
+     */
+    private final List<String> sortedIngredients;
+
+    /**
+     * Creates a new recipe book. Recipes whose slug is already used by an earlier recipe (in the given order), recipes
+     * without ingredients, and recipes whose ingredients are identical to an earlier recipe (in slug order) regardless
+     * of amounts, are rejected with a warning.
+     *
+     * @param recipes The recipes to index.
+     */
+    public RecipeBook(final @NotNull Collection<ForgeRecipe> recipes) {
+        this(recipes, (final ForgeRecipe recipe) -> null);
+    }
+
+    /**
+     * Creates a new recipe book, see {@link #RecipeBook(Collection)}.
+     *
+     * @param recipes The recipes to index.
+     * @param sources Names the source each recipe came from, if known, for rejection warnings.
+     */
+    public RecipeBook(final @NotNull Collection<ForgeRecipe> recipes,
+                      final @NotNull Function<ForgeRecipe, String> sources) {
+        // The sort is stable, so the earliest of any recipes sharing a slug is kept
+        final var sorted = new ArrayList<>(recipes);
+        sorted.sort(Comparator.comparing(ForgeRecipe::slug));
+        final var accepted = new ArrayList<ForgeRecipe>(sorted.size());
+        final var bySignature = new Object2ObjectOpenCustomHashMap<int[], ForgeRecipe>(sorted.size(),
+                IntArrays.HASH_STRATEGY);
+        final var bySlug = new HashMap<String, ForgeRecipe>(sorted.size());
+        for (final ForgeRecipe recipe : sorted) {
+            final ForgeRecipe sameSlug = bySlug.get(recipe.slug());
+            if (sameSlug != null) {
+                LOGGER.warning("Recipe [" + recipe.slug() + "]" + describeSource(sources, recipe)
+                        + " is already defined" + describeSource(sources, sameSlug) + " and has been rejected!");
+                continue;
+            }
+            if (recipe.ingredients().isEmpty()) {
+                LOGGER.warning("Recipe [" + recipe.slug() + "]" + describeSource(sources, recipe)
+                        + " has no ingredients and has been rejected!");
+                continue;
+            }
+            final int[] signature = createSignature(recipe.ingredients().keySet());
+            final ForgeRecipe existing = bySignature.putIfAbsent(signature, recipe);
+            if (existing != null) {
+                LOGGER.warning("Recipe [" + recipe.slug() + "]" + describeSource(sources, recipe)
+                        + " has the same ingredients as recipe [" + existing.slug() + "]"
+                        + describeSource(sources, existing) + " and has been rejected!");
+                continue;
+            }
+            bySlug.put(recipe.slug(), recipe);
+            accepted.add(recipe);
+        }
+        this.recipes = List.copyOf(accepted);
+        this.bySignature = Object2ObjectMaps.unmodifiable(bySignature);
+        this.bySlug = Map.copyOf(bySlug);
+        this.sortedSlugs = this.recipes.stream().map(ForgeRecipe::slug).toList();
+        final var byIngredient = new Int2ObjectOpenHashMap<List<ForgeRecipe>>();
+        for (final ForgeRecipe recipe : this.recipes) {
+            for (final IntIterator iterator = recipe.ingredients().keySet().iterator(); iterator.hasNext();) {
+                byIngredient.computeIfAbsent(iterator.nextInt(), (final int _id) -> new ArrayList<>()).add(recipe);
+            }
+        }
+        final var sortedIngredients = new ArrayList<String>(byIngredient.size());
+        for (final Int2ObjectMap.Entry<List<ForgeRecipe>> entry : Int2ObjectMaps.fastIterable(byIngredient)) {
+            entry.setValue(List.copyOf(entry.getValue()));
+            sortedIngredients.add(IngredientRegistry.getName(entry.getIntKey()));
+        }
+        sortedIngredients.sort(Comparator.naturalOrder());
+        this.byIngredient = Int2ObjectMaps.unmodifiable(byIngredient);
+        this.sortedIngredients = List.copyOf(sortedIngredients);
+    }
+
+    private static @NotNull String describeSource(final @NotNull Function<ForgeRecipe, String> sources,
+                                                  final @NotNull ForgeRecipe recipe) {
+        final String source = sources.apply(recipe);
+        return source == null ? "" : " in [" + source + "]";
+    }
+
+    /**
+     * @return Returns all the recipes within this book, sorted by slug.
+     */
+    public @NotNull List<ForgeRecipe> getRecipes() {
+        return this.recipes;
+    }
+
+    /**
+     * Finds the recipe with the given slug, ignoring case.
+     *
+     * @param slug The recipe slug to find.
+     * @return Returns the matched recipe, or null.
+     */
+    public @Nullable ForgeRecipe getRecipe(final @NotNull String slug) {
+        return this.bySlug.get(slug.toUpperCase());
+    }
+
+    /**
+     * Finds all recipe slugs that begin with the given prefix, ignoring case.
+     *
+     * @param prefix The prefix to match.
+     * @return Returns an unmodifiable, sorted view of all matching slugs.
+     */
+    public @NotNull List<String> completeSlugs(final @NotNull String prefix) {
+        return complete(this.sortedSlugs, prefix);
+    }
+
+    private static @NotNull List<String> complete(final @NotNull List<String> sorted,
+                                                  final @NotNull String prefix) {
+        if (prefix.isEmpty()) {
+            return sorted;
+        }
+        final String upperPrefix = prefix.toUpperCase();
+        final int start = lowerBound(sorted, upperPrefix);
+        int end = start;
+        while (end < sorted.size() && sorted.get(end).startsWith(upperPrefix)) {
+            end++;
+        }
+        return sorted.subList(start, end);
+    }
+
+    private static int lowerBound(final @NotNull List<String> sorted,
+                                  final @NotNull String key) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (sorted.get(middle).compareTo(key) < 0) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // ------------------------------------------------------------
+    // Ingredient Lookup
+    // ------------------------------------------------------------
+
+    /**
+     * Finds all recipes that use the given ingredient.
+     *
+     * @param ingredientID The ingredient ID, as per {@link IngredientRegistry}, which may be unknown.
+     * @return Returns an unmodifiable list of matching recipes, sorted by slug.
+     */
+    public @NotNull List<ForgeRecipe> getRecipesUsing(final int ingredientID) {
+        final List<ForgeRecipe> recipes = this.byIngredient.get(ingredientID);
+        return recipes == null ? List.of() : recipes;
+    }
+
+    /**
+     * Finds all recipes that use the given ingredient, ignoring case, as per {@link #findIngredientID(String)}.
+     *
+     * @param ingredient The ingredient's name.
+     * @return Returns an unmodifiable list of matching recipes, sorted by slug.
+     */
+    public @NotNull List<ForgeRecipe> getRecipesUsing(final @NotNull String ingredient) {
+        return getRecipesUsing(findIngredientID(ingredient));
+    }
+
+    /**
+     * Finds the ID of the given ingredient, ignoring case, <i>without</i> interning it, so this is safe to use with
+     * free-form input. Alloy ingredients can be given as they are in the config, such as "STEEL" or "STEEL:GOOD", or
+     * with their best quality spelled out, such as "STEEL:BEST".
+     *
+     * @param ingredient The ingredient's name.
+     * @return Returns the ingredient's ID, or {@link IngredientRegistry#UNKNOWN_ID} if it isn't known.
+     */
+    public int findIngredientID(final @NotNull String ingredient) {
+        final String name = ingredient.toUpperCase();
+        final int ingredientID = IngredientRegistry.findID(name);
+        if (ingredientID != IngredientRegistry.UNKNOWN_ID || !name.endsWith(BEST_QUALITY_SUFFIX)) {
+            return ingredientID;
+        }
+        final Alloy alloy = Config.getAlloyTable().fromKey(
+                name.substring(0, name.length() - BEST_QUALITY_SUFFIX.length()));
+        return alloy == null ? IngredientRegistry.UNKNOWN_ID : alloy.getIngredientID();
+    }
+
+    /**
+     * Finds the names of all ingredients used by any recipe that begin with the given prefix, ignoring case.
+     *
+     * @param prefix The prefix to match.
+     * @return Returns an unmodifiable, sorted view of all matching ingredient names.
+     */
+    public @NotNull List<String> completeIngredients(final @NotNull String prefix) {
+        return complete(this.sortedIngredients, prefix);
+    }
+
+    // ------------------------------------------------------------
+    // Ingredient Matching
+    // ------------------------------------------------------------
+
+    /**
+     * Finds the recipe whose ingredients are exactly the given ingredients, disregarding amounts.
+     *
+     * @param ingredients The ingredient IDs to match.
+     * @return Returns the matched recipe, or null.
+     */
+    public @Nullable ForgeRecipe matchIngredients(final @NotNull IntSet ingredients) {
+        return this.bySignature.get(createSignature(ingredients));
+    }
+
+    /**
+     * Canonicalises a set of ingredient IDs, regardless of their order.
+     *
+     * @param ingredients The ingredient IDs.
+     * @return Returns a new, sorted array of the ingredient IDs.
+     */
+    public static int[] createSignature(final @NotNull IntSet ingredients) {
+        final int[] signature = ingredients.toIntArray();
+        Arrays.sort(signature);
+        return signature;
+    }
+
+}
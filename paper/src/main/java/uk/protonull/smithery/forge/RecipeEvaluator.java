@@ -0,0 +1,350 @@
+package uk.protonull.smithery.forge;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMaps;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMaps;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenCustomHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.protonull.smithery.alloys.Alloy;
+import uk.protonull.smithery.alloys.AlloyQuality;
+import uk.protonull.smithery.alloys.AlloyTable;
+import uk.protonull.smithery.utilities.IntAmountMap;
+
+/**
+ * An immutable, pre-compiled form of a {@link RecipeBook} that turns a Forge's ingredients and smelting time into an
+ * Alloy. All smelting windows are computed once into integer milliseconds, and whether hints are enabled is fixed at
+ * compile time, so evaluating is safe from any thread.
+ */
+public final class RecipeEvaluator {
+
+    private final Map<int[], CompiledRecipe> bySignature;
+    private final Map<String, CompiledRecipe> bySlug;
+    /**
+     * Compiled recipes keyed by each of their ingredient IDs.
+     */
+    private final Int2ObjectMap<List<CompiledRecipe>> byIngredient;
+    private final boolean hintsEnabled;
+
+    /**
+     * @param book The recipes to compile.
+     * @param alloys The canonical Alloys of those recipes.
+     * @param hintsEnabled Whether hints are enabled, as per
+     *                     {@link uk.protonull.smithery.config.RecipeSnapshot#isHintsEnabled()}.
+     */
+    public RecipeEvaluator(final @NotNull RecipeBook book,
+                           final @NotNull AlloyTable alloys,
+                           final boolean hintsEnabled) {
+        final List<ForgeRecipe> recipes = book.getRecipes();
+        final var bySignature = new Object2ObjectOpenCustomHashMap<int[], CompiledRecipe>(recipes.size(),
+                IntArrays.HASH_STRATEGY);
+        final var bySlug = new HashMap<String, CompiledRecipe>(recipes.size());
+        final var byIngredient = new Int2ObjectOpenHashMap<List<CompiledRecipe>>();
+        for (final ForgeRecipe recipe : recipes) {
+            final var compiled = new CompiledRecipe(recipe, alloys);
+            bySignature.put(compiled.ingredientIDs, compiled);
+            bySlug.put(recipe.slug(), compiled);
+            for (final int ingredientID : compiled.ingredientIDs) {
+                byIngredient.computeIfAbsent(ingredientID, (final int _id) -> new ArrayList<>()).add(compiled);
+            }
+        }
+        for (final Int2ObjectMap.Entry<List<CompiledRecipe>> entry : Int2ObjectMaps.fastIterable(byIngredient)) {
+            entry.setValue(List.copyOf(entry.getValue()));
+        }
+        this.bySignature = Object2ObjectMaps.unmodifiable(bySignature);
+        this.bySlug = Map.copyOf(bySlug);
+        this.byIngredient = Int2ObjectMaps.unmodifiable(byIngredient);
+        this.hintsEnabled = hintsEnabled;
+    }
+
+    /**
+     * @return Returns whether this evaluator was compiled with hints enabled.
+     */
+    public boolean isHintsEnabled() {
+        return this.hintsEnabled;
+    }
+
+    /**
+     * Finds the compiled recipe whose ingredients are exactly the given ingredients, disregarding amounts.
+     *
+     * @param ingredients The ingredients to match.
+     * @return Returns the matched compiled recipe, or null.
+     */
+    public @Nullable CompiledRecipe match(final @NotNull IntAmountMap ingredients) {
+        if (ingredients.isEmpty()) {
+            return null;
+        }
+        return this.bySignature.get(RecipeBook.createSignature(ingredients.keySet()));
+    }
+
+    /**
+     * @param slug The recipe slug, which should already be upper-case.
+     * @return Returns the compiled recipe with the given slug, or null.
+     */
+    public @Nullable CompiledRecipe getRecipe(final @NotNull String slug) {
+        return this.bySlug.get(slug);
+    }
+
+    /**
+     * @param ingredientID The ingredient ID, as per {@link uk.protonull.smithery.utilities.IngredientRegistry}.
+     * @return Returns all the compiled recipes that use the given ingredient.
+     */
+    public @NotNull List<CompiledRecipe> getRecipesUsing(final int ingredientID) {
+        final List<CompiledRecipe> recipes = this.byIngredient.get(ingredientID);
+        return recipes == null ? List.of() : recipes;
+    }
+
+    /**
+     * Evaluates what Alloy the given ingredients would produce, rolling the recipe's fail chance randomly.
+     *
+     * @param ingredients The Forge's ingredients.
+     * @param timeSpentSmelting How long, in milliseconds, the ingredients have been smelting.
+     * @return Returns the resulting Alloy, which may be slag.
+     */
+    public @NotNull Alloy evaluate(final @NotNull IntAmountMap ingredients,
+                                   final long timeSpentSmelting) {
+        return evaluate(ingredients, timeSpentSmelting, ThreadLocalRandom.current().nextDouble(1d, 100d));
+    }
+
+    /**
+     * Evaluates what Alloy the given ingredients would produce.
+     *
+     * @param ingredients The Forge's ingredients.
+     * @param timeSpentSmelting How long, in milliseconds, the ingredients have been smelting.
+     * @param failRoll A roll between 1 and 100: the smelt fails if this is at or under the recipe's fail chance.
+     * @return Returns the resulting Alloy, which may be slag.
+     */
+    public @NotNull Alloy evaluate(final @NotNull IntAmountMap ingredients,
+                                   final long timeSpentSmelting,
+                                   final double failRoll) {
+        final CompiledRecipe recipe = match(ingredients);
+        if (recipe == null) {
+            return Alloy.SLAG;
+        }
+        return evaluate(recipe, recipe.doAmountsMatch(ingredients), timeSpentSmelting, failRoll);
+    }
+
+    /**
+     * Evaluates what Alloy an already-matched recipe would produce.
+     *
+     * @param recipe The matched recipe.
+     * @param amountsMatch Whether the ingredient amounts exactly match the recipe's.
+     * @param timeSpentSmelting How long, in milliseconds, the ingredients have been smelting.
+     * @param failRoll A roll between 1 and 100: the smelt fails if this is at or under the recipe's fail chance.
+     * @return Returns the resulting Alloy, which may be slag.
+     */
+    public @NotNull Alloy evaluate(final @NotNull CompiledRecipe recipe,
+                                   final boolean amountsMatch,
+                                   final long timeSpentSmelting,
+                                   final double failRoll) {
+        if (failRoll <= recipe.failChance) {
+            return Alloy.SLAG;
+        }
+        AlloyQuality quality = AlloyQuality.BEST;
+        if (this.hintsEnabled) {
+            // Ingredient Amounts
+            if (!amountsMatch) {
+                quality = quality.downgrade();
+            }
+            // Smelting time
+            if (timeSpentSmelting < recipe.minimumTime || timeSpentSmelting > recipe.maximumTime) {
+                return Alloy.SLAG;
+            }
+            if (timeSpentSmelting < recipe.idealMinimumTime || timeSpentSmelting > recipe.idealMaximumTime) {
+                quality = quality.downgrade();
+            }
+        }
+        else if (!amountsMatch
+                || timeSpentSmelting < recipe.idealMinimumTime
+                || timeSpentSmelting > recipe.idealMaximumTime) {
+            return Alloy.SLAG;
+        }
+        return recipe.getAlloy(quality);
+    }
+
+    /**
+     * Evaluates many smelts at once, such as when replaying or pricing production offline. Fail chances are rolled
+     * randomly for each smelt.
+     *
+     * @param smelts The smelts to evaluate.
+     * @param parallel Whether to spread the evaluation across the common fork-join pool.
+     * @return Returns the resulting Alloys, in the same order as the given smelts.
+     */
+    public @NotNull List<Alloy> evaluateAll(final @NotNull List<Smelt> smelts,
+                                            final boolean parallel) {
+        final var results = new Alloy[smelts.size()];
+        IntStream range = IntStream.range(0, results.length);
+        if (parallel) {
+            range = range.parallel();
+        }
+        range.forEach((final int i) -> {
+            final Smelt smelt = smelts.get(i);
+            results[i] = evaluate(smelt.ingredients(), smelt.timeSpentSmelting());
+        });
+        return Arrays.asList(results);
+    }
+
+    /**
+     * A single smelt to evaluate in bulk.
+     *
+     * @param ingredients The Forge's ingredients, which must not be modified while being evaluated.
+     * @param timeSpentSmelting How long, in milliseconds, the ingredients were smelting.
+     */
+    public record Smelt(@NotNull IntAmountMap ingredients,
+                        long timeSpentSmelting) {
+    }
+
+    // ------------------------------------------------------------
+    // Compiled Recipe
+    // ------------------------------------------------------------
+
+    /**
+     * A {@link ForgeRecipe} flattened for evaluation. Smelting windows are inclusive and in milliseconds.
+     */
+    public static final class CompiledRecipe {
+
+        private final ForgeRecipe recipe;
+        /**
+         * Sorted ingredient IDs, doubling as the recipe's signature.
+         */
+        private final int[] ingredientIDs;
+        /**
+         * Required amounts, parallel to {@link #ingredientIDs}.
+         */
+        private final int[] amounts;
+        private final double failChance;
+        private final long minimumTime;
+        private final long idealMinimumTime;
+        private final long idealMaximumTime;
+        private final long maximumTime;
+        private final Alloy[] alloys;
+
+        private CompiledRecipe(final @NotNull ForgeRecipe recipe,
+                               final @NotNull AlloyTable alloys) {
+            this.recipe = recipe;
+            this.ingredientIDs = RecipeBook.createSignature(recipe.ingredients().keySet());
+            this.amounts = new int[this.ingredientIDs.length];
+            for (int i = 0; i < this.ingredientIDs.length; i++) {
+                this.amounts[i] = recipe.ingredients().get(this.ingredientIDs[i]);
+            }
+            this.failChance = recipe.failChance();
+            final long cookTime = recipe.cookTime();
+            this.minimumTime = ceilDivide(cookTime * 8L, 10L);
+            this.idealMinimumTime = ceilDivide(cookTime * 9L, 10L);
+            this.idealMaximumTime = Math.floorDiv(cookTime * 13L, 10L);
+            this.maximumTime = Math.floorDiv(cookTime * 15L, 10L);
+            final AlloyQuality[] qualities = AlloyQuality.values();
+            this.alloys = new Alloy[qualities.length];
+            for (final AlloyQuality quality : qualities) {
+                this.alloys[quality.ordinal()] = Objects.requireNonNull(alloys.get(recipe.slug(), quality));
+            }
+        }
+
+        private static long ceilDivide(final long dividend,
+                                       final long divisor) {
+            return -Math.floorDiv(-dividend, divisor);
+        }
+
+        /**
+         * @return Returns the recipe this was compiled from.
+         */
+        public @NotNull ForgeRecipe getRecipe() {
+            return this.recipe;
+        }
+
+        /**
+         * @return Returns how many distinct ingredients this recipe has.
+         */
+        public int getIngredientCount() {
+            return this.ingredientIDs.length;
+        }
+
+        /**
+         * @param index The index of the ingredient, between 0 and {@link #getIngredientCount()}.
+         * @return Returns the ingredient ID at the given index. Ingredient IDs are in ascending order.
+         */
+        int getIngredientID(final int index) {
+            return this.ingredientIDs[index];
+        }
+
+        /**
+         * @param index The index of the ingredient, between 0 and {@link #getIngredientCount()}.
+         * @return Returns the required amount of the ingredient at the given index.
+         */
+        int getAmount(final int index) {
+            return this.amounts[index];
+        }
+
+        /**
+         * @param ingredientID The ingredient ID to check.
+         * @return Returns whether this recipe uses the given ingredient.
+         */
+        public boolean containsIngredient(final int ingredientID) {
+            return Arrays.binarySearch(this.ingredientIDs, ingredientID) >= 0;
+        }
+
+        /**
+         * Determines whether the given ingredients have exactly this recipe's amounts. This assumes the ingredients
+         * have already been matched against this recipe.
+         *
+         * @param ingredients The ingredients to check.
+         * @return Returns true if every amount matches.
+         */
+        public boolean doAmountsMatch(final @NotNull IntAmountMap ingredients) {
+            for (int i = 0; i < this.ingredientIDs.length; i++) {
+                if (ingredients.get(this.ingredientIDs[i]) != this.amounts[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return Returns the earliest smelting time that won't produce slag when hints are enabled.
+         */
+        public long getMinimumTime() {
+            return this.minimumTime;
+        }
+
+        /**
+         * @return Returns the earliest smelting time that won't downgrade the alloy's quality.
+         */
+        public long getIdealMinimumTime() {
+            return this.idealMinimumTime;
+        }
+
+        /**
+         * @return Returns the latest smelting time that won't downgrade the alloy's quality.
+         */
+        public long getIdealMaximumTime() {
+            return this.idealMaximumTime;
+        }
+
+        /**
+         * @return Returns the latest smelting time that won't produce slag when hints are enabled.
+         */
+        public long getMaximumTime() {
+            return this.maximumTime;
+        }
+
+        /**
+         * @param quality The quality of the alloy.
+         * @return Returns this recipe's alloy of the given quality.
+         */
+        public @NotNull Alloy getAlloy(final @NotNull AlloyQuality quality) {
+            return this.alloys[quality.ordinal()];
+        }
+
+    }
+
+}
@@ -0,0 +1,262 @@
+package uk.protonull.smithery.forge;
+
+import it.unimi.dsi.fastutil.ints.Int2DoubleMap;
+import it.unimi.dsi.fastutil.ints.Int2DoubleMaps;
+import it.unimi.dsi.fastutil.ints.Int2DoubleOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMaps;
+import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.protonull.smithery.alloys.Alloy;
+import uk.protonull.smithery.alloys.AlloyQuality;
+import uk.protonull.smithery.utilities.IngredientRegistry;
+import vg.civcraft.mc.civmodcore.utilities.CivLogger;
+
+/**
+ * An immutable graph of which recipes consume which other recipes' Alloys. Costs are computed once, in dependency
+ * order, when the graph is built. Recipes that are part of a cycle, or that depend on one, have no cost.
+ */
+public final class RecipeGraph {
+
+    private static final CivLogger LOGGER = CivLogger.getLogger(RecipeGraph.class);
+
+    private static final int UNVISITED = 0;
+    private static final int VISITING = 1;
+    private static final int VISITED = 2;
+
+    private final Map<String, List<Dependency>> dependencies;
+    private final Map<String, List<ForgeRecipe>> dependents;
+    private final Map<String, RecipeCost> costs;
+    private final Set<String> cyclic;
+
+    /**
+     * @param book The recipes to graph.
+     * @param evaluator The compiled form of those same recipes, for their smelting windows.
+     */
+    public RecipeGraph(final @NotNull RecipeBook book,
+                       final @NotNull RecipeEvaluator evaluator) {
+        final var dependencies = new HashMap<String, List<Dependency>>();
+        final var dependents = new HashMap<String, List<ForgeRecipe>>();
+        for (final ForgeRecipe recipe : book.getRecipes()) {
+            final var recipeDependencies = new ArrayList<Dependency>();
+            for (final Int2IntMap.Entry entry : Int2IntMaps.fastIterable(recipe.ingredients())) {
+                final Alloy alloy = parseAlloy(IngredientRegistry.getName(entry.getIntKey()));
+                final ForgeRecipe dependency = alloy == null ? null : book.getRecipe(alloy.recipe());
+                if (dependency != null) {
+                    recipeDependencies.add(new Dependency(entry.getIntKey(), dependency, alloy.quality(),
+                            entry.getIntValue()));
+                    dependents.computeIfAbsent(dependency.slug(), (_slug) -> new ArrayList<>()).add(recipe);
+                }
+            }
+            dependencies.put(recipe.slug(), List.copyOf(recipeDependencies));
+        }
+        dependents.replaceAll((_slug, recipes) -> List.copyOf(recipes));
+        this.dependencies = Map.copyOf(dependencies);
+        this.dependents = Map.copyOf(dependents);
+        // Walk the graph depth-first, costing each recipe after its dependencies
+        final var costs = new HashMap<String, RecipeCost>();
+        final var cyclic = new HashSet<String>();
+        final var states = new Object2IntOpenHashMap<String>();
+        states.defaultReturnValue(UNVISITED);
+        for (final ForgeRecipe recipe : book.getRecipes()) {
+            visit(recipe, evaluator, states, new ArrayList<>(), costs, cyclic);
+        }
+        this.costs = Map.copyOf(costs);
+        this.cyclic = Set.copyOf(cyclic);
+    }
+
+    private static @Nullable Alloy parseAlloy(final @NotNull String ingredient) {
+        try {
+            return Alloy.fromKey(ingredient);
+        }
+        catch (final IllegalArgumentException ignored) {
+            return null;
+        }
+    }
+
+    private void visit(final @NotNull ForgeRecipe recipe,
+                       final @NotNull RecipeEvaluator evaluator,
+                       final @NotNull Object2IntMap<String> states,
+                       final @NotNull List<String> path,
+                       final @NotNull Map<String, RecipeCost> costs,
+                       final @NotNull Set<String> cyclic) {
+        final String slug = recipe.slug();
+        switch (states.getInt(slug)) {
+            case VISITED -> {
+                return;
+            }
+            case VISITING -> {
+                final List<String> cycle = path.subList(path.indexOf(slug), path.size());
+                cyclic.addAll(cycle);
+                LOGGER.warning("Recipes " + cycle + " form a cycle and cannot be costed!");
+                return;
+            }
+        }
+        states.put(slug, VISITING);
+        path.add(slug);
+        for (final Dependency dependency : this.dependencies.get(slug)) {
+            visit(dependency.recipe(), evaluator, states, path, costs, cyclic);
+        }
+        path.remove(path.size() - 1);
+        states.put(slug, VISITED);
+        if (!cyclic.contains(slug)) {
+            final RecipeCost cost = computeCost(recipe, evaluator, costs);
+            if (cost != null) {
+                costs.put(slug, cost);
+            }
+        }
+    }
+
+    private @Nullable RecipeCost computeCost(final @NotNull ForgeRecipe recipe,
+                                             final @NotNull RecipeEvaluator evaluator,
+                                             final @NotNull Map<String, RecipeCost> costs) {
+        final RecipeEvaluator.CompiledRecipe compiled = evaluator.getRecipe(recipe.slug());
+        if (compiled == null) {
+            return null;
+        }
+        final double perUnit = 1d / Math.max(1, recipe.yield());
+        // Each quality's own smelt: the best quality needs the ideal window, whereas with hints enabled a lesser
+        // quality can be extracted as soon as it's no longer slag
+        final var cookTimes = new double[AlloyQuality.values().length];
+        Arrays.fill(cookTimes, -1d);
+        cookTimes[AlloyQuality.BEST.ordinal()] = compiled.getIdealMinimumTime() * perUnit;
+        if (evaluator.isHintsEnabled()) {
+            cookTimes[AlloyQuality.GOOD.ordinal()] = compiled.getMinimumTime() * perUnit;
+            cookTimes[AlloyQuality.OKAY.ordinal()] = compiled.getMinimumTime() * perUnit;
+        }
+        final var materials = new Int2DoubleOpenHashMap();
+        final var alloyIngredients = new Int2ObjectArrayMap<Dependency>();
+        for (final Dependency dependency : this.dependencies.get(recipe.slug())) {
+            alloyIngredients.put(dependency.ingredientID(), dependency);
+        }
+        for (final Int2IntMap.Entry entry : Int2IntMaps.fastIterable(recipe.ingredients())) {
+            final double amount = entry.getIntValue() * perUnit;
+            final Dependency dependency = alloyIngredients.get(entry.getIntKey());
+            if (dependency == null) {
+                materials.addTo(entry.getIntKey(), amount);
+                continue;
+            }
+            final RecipeCost dependencyCost = costs.get(dependency.recipe().slug());
+            if (dependencyCost == null) {
+                return null;
+            }
+            for (final Int2DoubleMap.Entry material : Int2DoubleMaps.fastIterable(dependencyCost.materials)) {
+                materials.addTo(material.getIntKey(), material.getDoubleValue() * amount);
+            }
+            final double dependencyTime = dependencyCost.getCookTime(dependency.quality());
+            for (int i = 0; i < cookTimes.length; i++) {
+                if (cookTimes[i] >= 0d) {
+                    cookTimes[i] = dependencyTime < 0d ? -1d : cookTimes[i] + (dependencyTime * amount);
+                }
+            }
+        }
+        return new RecipeCost(recipe, Int2DoubleMaps.unmodifiable(materials), cookTimes);
+    }
+
+    /**
+     * @param slug The recipe slug, which should already be upper-case.
+     * @return Returns the Alloy ingredients the given recipe directly consumes.
+     */
+    public @NotNull List<Dependency> getDependencies(final @NotNull String slug) {
+        return this.dependencies.getOrDefault(slug, List.of());
+    }
+
+    /**
+     * @param slug The recipe slug, which should already be upper-case.
+     * @return Returns the recipes that directly consume the given recipe's Alloy.
+     */
+    public @NotNull List<ForgeRecipe> getDependents(final @NotNull String slug) {
+        return this.dependents.getOrDefault(slug, List.of());
+    }
+
+    /**
+     * @param slug The recipe slug, which should already be upper-case.
+     * @return Returns whether the given recipe is part of a dependency cycle.
+     */
+    public boolean isCyclic(final @NotNull String slug) {
+        return this.cyclic.contains(slug);
+    }
+
+    /**
+     * @param slug The recipe slug, which should already be upper-case.
+     * @return Returns the cached cost of the given recipe, or null if it's unknown or cannot be costed.
+     */
+    public @Nullable RecipeCost getCost(final @NotNull String slug) {
+        return this.costs.get(slug);
+    }
+
+    /**
+     * An Alloy ingredient of a recipe.
+     *
+     * @param ingredientID The Alloy's ingredient ID, as per {@link IngredientRegistry}.
+     * @param recipe The recipe that produces the Alloy.
+     * @param quality The quality of Alloy required.
+     * @param amount The amount required.
+     */
+    public record Dependency(int ingredientID,
+                             @NotNull ForgeRecipe recipe,
+                             @NotNull AlloyQuality quality,
+                             int amount) {
+    }
+
+    // ------------------------------------------------------------
+    // Recipe Cost
+    // ------------------------------------------------------------
+
+    /**
+     * The full cost of producing a single unit of a recipe's Alloy, all the way down to raw (non-Alloy) ingredients.
+     * Fail chances are not accounted for.
+     */
+    public static final class RecipeCost {
+
+        private final ForgeRecipe recipe;
+        private final Int2DoubleMap materials;
+        private final double[] cookTimes;
+
+        private RecipeCost(final @NotNull ForgeRecipe recipe,
+                           final @NotNull Int2DoubleMap materials,
+                           final double[] cookTimes) {
+            this.recipe = recipe;
+            this.materials = materials;
+            this.cookTimes = cookTimes;
+        }
+
+        /**
+         * @return Returns the recipe this is the cost of.
+         */
+        public @NotNull ForgeRecipe getRecipe() {
+            return this.recipe;
+        }
+
+        /**
+         * @return Returns an unmodifiable map of raw ingredient IDs, as per {@link IngredientRegistry}, to how many of
+         *         each are needed per unit of Alloy.
+         */
+        public @NotNull Int2DoubleMap getMaterials() {
+            return this.materials;
+        }
+
+        /**
+         * Retrieves the total smelting time, including that of any Alloy ingredients, needed per unit of Alloy of
+         * the given quality, assuming each smelt is extracted as early as possible.
+         *
+         * @param quality The quality of the Alloy.
+         * @return Returns the cook time in milliseconds, or -1 if that quality cannot be reliably produced.
+         */
+        public double getCookTime(final @NotNull AlloyQuality quality) {
+            return this.cookTimes[quality.ordinal()];
+        }
+
+    }
+
+}
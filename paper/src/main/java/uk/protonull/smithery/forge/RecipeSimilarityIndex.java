@@ -0,0 +1,138 @@
+package uk.protonull.smithery.forge;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import uk.protonull.smithery.forge.RecipeEvaluator.CompiledRecipe;
+import uk.protonull.smithery.utilities.IntAmountMap;
+
+/**
+ * An immutable index that finds the recipes nearest to a set of ingredients, such as those of a Forge that matches no
+ * recipe at all. Recipes are ranked by how much their ingredients overlap with the given ingredients, then by how far
+ * apart the amounts are.
+ *
+ * <p>Only recipes that share at least one ingredient are considered, which are found through the evaluator's posting
+ * lists (the recipes using each ingredient), rarest ingredient first. Once {@link #MAX_POSTINGS} recipes have been
+ * visited, the remaining, more common ingredients stop adding candidates, so a query costs about the same whether
+ * there are dozens or thousands of recipes.
+ */
+public final class RecipeSimilarityIndex {
+
+    /**
+     * The number of posting list entries a query may visit while gathering candidates. The rarest ingredient's
+     * posting list is always visited in full, even if it's larger than this.
+     */
+    public static final int MAX_POSTINGS = 2048;
+
+    private static final Comparator<Neighbour> NEAREST_FIRST = Comparator
+            .comparingDouble(Neighbour::getSimilarity).reversed()
+            .thenComparingInt(Neighbour::amountDistance)
+            .thenComparing((final Neighbour neighbour) -> neighbour.recipe().getRecipe().slug());
+
+    private final RecipeEvaluator evaluator;
+
+    /**
+     * @param evaluator The compiled recipes to index.
+     */
+    public RecipeSimilarityIndex(final @NotNull RecipeEvaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Finds the recipes nearest to the given ingredients.
+     *
+     * @param ingredients The ingredients to compare, such as a Forge's.
+     * @param limit The maximum number of recipes to return.
+     * @return Returns up to the given number of recipes, nearest first.
+     */
+    public @NotNull List<Neighbour> findNearest(final @NotNull IntAmountMap ingredients,
+                                                final int limit) {
+        if (limit < 1 || ingredients.isEmpty()) {
+            return List.of();
+        }
+        final int[] ingredientIDs = ingredients.keySet().toIntArray();
+        IntArrays.quickSort(ingredientIDs);
+        final var postings = new ArrayList<List<CompiledRecipe>>(ingredientIDs.length);
+        for (final int ingredientID : ingredientIDs) {
+            final List<CompiledRecipe> posting = this.evaluator.getRecipesUsing(ingredientID);
+            if (!posting.isEmpty()) {
+                postings.add(posting);
+            }
+        }
+        postings.sort(Comparator.comparingInt(List::size));
+        final var candidates = new ReferenceOpenHashSet<CompiledRecipe>();
+        int visited = 0;
+        for (final List<CompiledRecipe> posting : postings) {
+            if (visited > 0 && visited + posting.size() > MAX_POSTINGS) {
+                break;
+            }
+            candidates.addAll(posting);
+            visited += posting.size();
+        }
+        final var neighbours = new ArrayList<Neighbour>(candidates.size());
+        for (final CompiledRecipe candidate : candidates) {
+            neighbours.add(compare(candidate, ingredients, ingredientIDs));
+        }
+        neighbours.sort(NEAREST_FIRST);
+        return neighbours.size() > limit ? List.copyOf(neighbours.subList(0, limit)) : neighbours;
+    }
+
+    /**
+     * Compares a recipe to the given ingredients by merging their sorted ingredient IDs.
+     */
+    private static @NotNull Neighbour compare(final @NotNull CompiledRecipe recipe,
+                                              final @NotNull IntAmountMap ingredients,
+                                              final int[] ingredientIDs) {
+        int shared = 0;
+        int missing = 0;
+        int extra = 0;
+        int amountDistance = 0;
+        int i = 0;
+        int j = 0;
+        while (i < recipe.getIngredientCount() || j < ingredientIDs.length) {
+            if (j >= ingredientIDs.length
+                    || (i < recipe.getIngredientCount() && recipe.getIngredientID(i) < ingredientIDs[j])) {
+                missing++;
+                amountDistance += recipe.getAmount(i++);
+            }
+            else if (i >= recipe.getIngredientCount() || recipe.getIngredientID(i) > ingredientIDs[j]) {
+                extra++;
+                amountDistance += ingredients.get(ingredientIDs[j++]);
+            }
+            else {
+                shared++;
+                amountDistance += Math.abs(recipe.getAmount(i++) - ingredients.get(ingredientIDs[j++]));
+            }
+        }
+        return new Neighbour(recipe, shared, missing, extra, amountDistance);
+    }
+
+    /**
+     * A recipe's nearness to a set of ingredients.
+     *
+     * @param recipe The recipe.
+     * @param sharedIngredients How many ingredients both the recipe and the ingredients have.
+     * @param missingIngredients How many of the recipe's ingredients are missing.
+     * @param extraIngredients How many ingredients the recipe does not use.
+     * @param amountDistance The sum of the differences in amount across all ingredients.
+     */
+    public record Neighbour(@NotNull CompiledRecipe recipe,
+                            int sharedIngredients,
+                            int missingIngredients,
+                            int extraIngredients,
+                            int amountDistance) {
+
+        /**
+         * @return Returns the ratio of shared ingredients to all ingredients, between 0 (exclusive) and 1.
+         */
+        public double getSimilarity() {
+            return (double) this.sharedIngredients
+                    / (this.sharedIngredients + this.missingIngredients + this.extraIngredients);
+        }
+
+    }
+
+}
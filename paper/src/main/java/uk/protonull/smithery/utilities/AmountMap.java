@@ -1,5 +1,6 @@
 package uk.protonull.smithery.utilities;
 
+import it.unimi.dsi.fastutil.ints.IntIterator;
 import it.unimi.dsi.fastutil.objects.Object2IntArrayMap;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.Object2IntMaps;
@@ -22,7 +23,7 @@ public interface AmountMap<T> extends Object2IntMap<T> {
      * Removes "empties", ie: keys with non-positive amounts.
      */
     default void removeEmpties() {
-        values().removeIf((final Integer amount) -> amount == null || amount < 1);
+        values().removeIf((final int amount) -> amount < 1);
     }
 
     /**
@@ -30,7 +31,8 @@ public interface AmountMap<T> extends Object2IntMap<T> {
      */
     default int getTotalAmount() {
         int amount = 0;
-        for (final int currentAmount : values()) {
+        for (final IntIterator iterator = values().iterator(); iterator.hasNext();) {
+            final int currentAmount = iterator.nextInt();
             if (currentAmount > 0) {
                 amount += currentAmount;
             }
@@ -48,10 +50,13 @@ public interface AmountMap<T> extends Object2IntMap<T> {
      */
     default int computeAmount(final T key,
                               final @NotNull IntUnaryOperator computer) {
-        return compute(key, (_key, amount) -> {
-            amount = computer.applyAsInt(amount == null ? defaultReturnValue() : amount);
-            return amount <= 0 ? null : amount;
-        });
+        final int amount = computer.applyAsInt(getInt(key));
+        if (amount <= 0) {
+            removeInt(key);
+            return 0;
+        }
+        put(key, amount);
+        return amount;
     }
 
     /**
@@ -63,7 +68,13 @@ public interface AmountMap<T> extends Object2IntMap<T> {
      */
     default int changeAmountBy(final T key,
                                final int amount) {
-        return computeAmount(key, (final int currentAmount) -> currentAmount + amount);
+        final int newAmount = getInt(key) + amount;
+        if (newAmount <= 0) {
+            removeInt(key);
+            return 0;
+        }
+        put(key, newAmount);
+        return newAmount;
     }
 
     /**
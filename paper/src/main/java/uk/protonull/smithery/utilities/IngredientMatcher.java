@@ -1,12 +1,25 @@
 package uk.protonull.smithery.utilities;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import lombok.experimental.UtilityClass;
 import org.apache.commons.lang3.StringUtils;
+import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import uk.protonull.smithery.alloys.Alloy;
 import uk.protonull.smithery.alloys.AlloyUtils;
 
+/**
+ * Converts items into ingredient IDs. Alloys are matched first, then the registered matchers are asked in order, and
+ * finally the item's material is used. Only the matchers that care about an item's material are asked. Results for
+ * items without NBT are cached by material, so matchers must be deterministic. Items with NBT are not cached, since
+ * matchers could be reading any part of it, and comparing whole tags would cost about as much as asking the matchers.
+ */
 @UtilityClass
 public class IngredientMatcher {
 
@@ -19,37 +32,153 @@ public class IngredientMatcher {
          * @return Returns a custom ingredient ID if matched, or null.
          */
         String getCustomIngredientID(@NotNull ItemStack ingredient);
+
+        /**
+         * @return Returns the materials of the items this matcher can match, or null if it should be asked about
+         *         items of every material. This should not change once the matcher is registered.
+         */
+        default @Nullable Set<Material> getMaterials() {
+            return null;
+        }
     }
 
-    private Matcher MATCHER = null;
+    private final Matcher[] NO_MATCHERS = new Matcher[0];
+
+    private Matcher FINDER = null;
+    private final List<Matcher> MATCHERS = new ArrayList<>();
+    /**
+     * The current chain of matchers, which is replaced whenever the matchers change, so that it can be read without
+     * locking.
+     */
+    private volatile Chain CHAIN = buildChain();
 
     /**
-     * This allows you to set a custom matcher, should you choose to.
+     * @param byMaterial The matchers to ask about each material, indexed by material ordinal.
+     * @param plainIDs The resolved ingredient IDs of items without NBT, indexed by material ordinal, which are filled in
+     *                 as they're first resolved. Matchers are deterministic, so racing writes store the same ID.
+     */
+    private record Chain(@NotNull Matcher[][] byMaterial,
+                         int[] plainIDs) {
+    }
+
+    /**
+     * This allows you to set a custom matcher, should you choose to. The matcher is asked before any matchers that
+     * have been registered via {@link #registerMatcher(Matcher)}.
      *
      * @param finder The new matcher to set, which can be null.
      */
-    public void setFinder(final Matcher finder) {
-        MATCHER = finder;
+    public synchronized void setFinder(final Matcher finder) {
+        FINDER = finder;
+        CHAIN = buildChain();
+    }
+
+    /**
+     * Adds a matcher to the end of the chain.
+     *
+     * @param matcher The matcher to register.
+     */
+    public synchronized void registerMatcher(final @NotNull Matcher matcher) {
+        MATCHERS.add(Objects.requireNonNull(matcher));
+        CHAIN = buildChain();
+    }
+
+    /**
+     * Removes a matcher from the chain.
+     *
+     * @param matcher The matcher to unregister.
+     * @return Returns true if the matcher was registered.
+     */
+    public synchronized boolean unregisterMatcher(final @NotNull Matcher matcher) {
+        if (MATCHERS.remove(matcher)) {
+            CHAIN = buildChain();
+            return true;
+        }
+        return false;
+    }
+
+    private @NotNull Chain buildChain() {
+        final var chain = new ArrayList<Matcher>(MATCHERS.size() + 1);
+        if (FINDER != null) {
+            chain.add(FINDER);
+        }
+        chain.addAll(MATCHERS);
+        final List<Set<Material>> chainMaterials = chain.stream().map(Matcher::getMaterials).toList();
+        final Material[] materials = Material.values();
+        final var byMaterial = new Matcher[materials.length][];
+        final var materialMatchers = new ArrayList<Matcher>(chain.size());
+        for (final Material material : materials) {
+            materialMatchers.clear();
+            for (int i = 0; i < chain.size(); i++) {
+                final Set<Material> filter = chainMaterials.get(i);
+                if (filter == null || filter.contains(material)) {
+                    materialMatchers.add(chain.get(i));
+                }
+            }
+            byMaterial[material.ordinal()] = materialMatchers.isEmpty()
+                    ? NO_MATCHERS
+                    : materialMatchers.toArray(NO_MATCHERS);
+        }
+        final var plainIDs = new int[materials.length];
+        Arrays.fill(plainIDs, IngredientRegistry.UNKNOWN_ID);
+        return new Chain(byMaterial, plainIDs);
     }
 
     /**
      * Converts an item into an ingredient ID.
      *
      * @param ingredient The ingredient to an ID for.
-     * @return Returns an ingredient ID.
+     * @return Returns an interned ingredient ID, as per {@link IngredientRegistry}.
      */
-    public @NotNull String getIngredientID(final @NotNull ItemStack ingredient) {
-        final Alloy alloy = AlloyUtils.getAlloyFromItem(ingredient.getItemMeta());
+    public int getIngredientID(final @NotNull ItemStack ingredient) {
+        final Alloy alloy = AlloyUtils.getAlloyFromItem(ingredient);
         if (alloy != null) {
-            return alloy.generateKey();
+            return alloy.getIngredientID();
+        }
+        final Material material = ingredient.getType();
+        final Chain chain = CHAIN;
+        final Matcher[] matchers = chain.byMaterial()[material.ordinal()];
+        if (matchers.length == 0) {
+            return IngredientRegistry.getID(material);
+        }
+        final net.minecraft.world.item.ItemStack handle = Utilities.getHandle(ingredient);
+        if (handle == null || handle.getTag() != null) {
+            return askMatchers(matchers, ingredient);
         }
-        if (MATCHER != null) {
-            final String found = MATCHER.getCustomIngredientID(ingredient);
+        int ingredientID = chain.plainIDs()[material.ordinal()];
+        if (ingredientID == IngredientRegistry.UNKNOWN_ID) {
+            ingredientID = askMatchers(matchers, ingredient);
+            chain.plainIDs()[material.ordinal()] = ingredientID;
+        }
+        return ingredientID;
+    }
+
+    /**
+     * Converts every item in a crafting matrix, or any other array of items, into ingredient IDs at once.
+     *
+     * @param ingredients The items to convert, which may contain empty slots.
+     * @return Returns an array of interned ingredient IDs, parallel to the given items, in which empty slots are
+     *         {@link IngredientRegistry#UNKNOWN_ID}.
+     */
+    public int[] getIngredientIDs(final ItemStack[] ingredients) {
+        final var ingredientIDs = new int[ingredients.length];
+        for (int i = 0; i < ingredients.length; i++) {
+            final ItemStack ingredient = ingredients[i];
+            ingredientIDs[i] = Utilities.isEmptyItem(ingredient)
+                    ? IngredientRegistry.UNKNOWN_ID
+                    : getIngredientID(ingredient);
+        }
+        return ingredientIDs;
+    }
+
+    private int askMatchers(final Matcher[] matchers,
+                            final @NotNull ItemStack ingredient) {
+        for (final Matcher matcher : matchers) {
+            final String found = matcher.getCustomIngredientID(ingredient);
             if (StringUtils.isNotBlank(found)) {
-                return found.toUpperCase();
+                return IngredientRegistry.getID(found.toUpperCase());
             }
         }
-        return ingredient.getType().name();
+        return IngredientRegistry.getID(ingredient.getType());
     }
 
 }
@@ -0,0 +1,74 @@
+package uk.protonull.smithery.utilities;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.util.Objects;
+import lombok.experimental.UtilityClass;
+import org.bukkit.Material;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Interns ingredient IDs (material names, alloy keys, and custom IDs) as dense integers so that ingredient maps can be
+ * primitive. The string IDs are still what's stored in NBT and the config, so the integer IDs should never be
+ * persisted since they're only stable for the lifetime of the server.
+ */
+@UtilityClass
+public class IngredientRegistry {
+
+    public final int UNKNOWN_ID = -1;
+
+    private final Object2IntMap<String> IDS = new Object2IntOpenHashMap<>();
+    private final ObjectArrayList<String> NAMES = new ObjectArrayList<>();
+    private final int[] MATERIAL_IDS = new int[Material.values().length];
+
+    static {
+        IDS.defaultReturnValue(UNKNOWN_ID);
+        for (final Material material : Material.values()) {
+            MATERIAL_IDS[material.ordinal()] = getID(material.name());
+        }
+    }
+
+    /**
+     * Retrieves the integer ID of the given ingredient, interning it if necessary.
+     *
+     * @param ingredient The ingredient ID to intern, which should already be upper-case.
+     * @return Returns the ingredient's integer ID.
+     */
+    public synchronized int getID(final @NotNull String ingredient) {
+        int id = IDS.getInt(Objects.requireNonNull(ingredient));
+        if (id == UNKNOWN_ID) {
+            id = NAMES.size();
+            NAMES.add(ingredient);
+            IDS.put(ingredient, id);
+        }
+        return id;
+    }
+
+    /**
+     * @param material The material to get the ingredient ID of.
+     * @return Returns the material's integer ingredient ID, which is precomputed.
+     */
+    public int getID(final @NotNull Material material) {
+        return MATERIAL_IDS[material.ordinal()];
+    }
+
+    /**
+     * Retrieves the integer ID of the given ingredient <i>without</i> interning it.
+     *
+     * @param ingredient The ingredient ID to find.
+     * @return Returns the ingredient's integer ID, or {@link #UNKNOWN_ID}.
+     */
+    public synchronized int findID(final @NotNull String ingredient) {
+        return IDS.getInt(ingredient);
+    }
+
+    /**
+     * @param id The integer ingredient ID.
+     * @return Returns the string ingredient ID.
+     */
+    public synchronized @NotNull String getName(final int id) {
+        return NAMES.get(id);
+    }
+
+}
@@ -0,0 +1,423 @@
+package uk.protonull.smithery.utilities;
+
+import it.unimi.dsi.fastutil.ints.AbstractInt2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntArrayMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMaps;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.objects.AbstractObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.IntUnaryOperator;
+import org.apache.commons.lang3.NotImplementedException;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A primitive-keyed version of {@link AmountMap}, intended for integer IDs such as those from
+ * {@link IngredientRegistry}. There are three default implementations: {@link ArrayMap}, {@link HashMap}, and
+ * {@link TotallingArrayMap}, the last of which is preferable for small, frequently mutated maps.
+ */
+public interface IntAmountMap extends Int2IntMap {
+
+    /**
+     * Removes "empties", ie: keys with non-positive amounts.
+     */
+    default void removeEmpties() {
+        values().removeIf((final int amount) -> amount < 1);
+    }
+
+    /**
+     * @return Returns the total amount of things stored in this map.
+     */
+    default int getTotalAmount() {
+        int amount = 0;
+        for (final IntIterator iterator = values().iterator(); iterator.hasNext();) {
+            final int currentAmount = iterator.nextInt();
+            if (currentAmount > 0) {
+                amount += currentAmount;
+            }
+        }
+        return amount;
+    }
+
+    /**
+     * Computes the amount for a certain key. If the computer returns a non-positive amount, the key is considered
+     * "empty" and will be removed.
+     *
+     * @param key The key to compute the amount of.
+     * @param computer The computer method/lambda to call.
+     * @return Returns the new amount value, or zero if "empty".
+     */
+    default int computeAmount(final int key,
+                              final @NotNull IntUnaryOperator computer) {
+        final int amount = computer.applyAsInt(get(key));
+        if (amount <= 0) {
+            remove(key);
+            return 0;
+        }
+        put(key, amount);
+        return amount;
+    }
+
+    /**
+     * Convenience method to add a particular amount to a given key.
+     *
+     * @param key The key to add to.
+     * @param amount The amount to add.
+     * @return Returns the new amount value, or zero if "empty".
+     */
+    default int changeAmountBy(final int key,
+                               final int amount) {
+        final int newAmount = get(key) + amount;
+        if (newAmount <= 0) {
+            remove(key);
+            return 0;
+        }
+        put(key, newAmount);
+        return newAmount;
+    }
+
+    /**
+     * Convenience method to add one to a given key.
+     *
+     * @param key The key to increment.
+     * @return Returns the new amount value.
+     */
+    default int increment(final int key) {
+        return changeAmountBy(key, 1);
+    }
+
+    /**
+     * Convenience method to subtract one from a given key.
+     *
+     * @param key The key to decrement.
+     * @return Returns the new amount value, or zero if "empty".
+     */
+    default int decrement(final int key) {
+        return changeAmountBy(key, -1);
+    }
+
+    /**
+     * @deprecated Changing the default value from 0 in an amount map is not supported!
+     */
+    @Deprecated
+    @Override
+    default void defaultReturnValue(final int returnValue) {
+        throw new NotImplementedException("Please don't try to change the default return value!");
+    }
+
+    // ------------------------------------------------------------
+    // Default Implementations
+    // ------------------------------------------------------------
+
+    /**
+     * Array-map implementation class for {@link IntAmountMap}.
+     */
+    class ArrayMap extends Int2IntArrayMap implements IntAmountMap {
+        public ArrayMap() {
+            this(16);
+        }
+        public ArrayMap(final int size) {
+            super(size);
+        }
+    }
+
+    /**
+     * Hash-map implementation class for {@link IntAmountMap}.
+     */
+    class HashMap extends Int2IntOpenHashMap implements IntAmountMap {
+        public HashMap() {
+            this(16);
+        }
+        public HashMap(final int size) {
+            super(size);
+        }
+    }
+
+    /**
+     * Array-map implementation class for {@link IntAmountMap} that never holds "empties" and keeps a running total.
+     * Putting a non-positive amount removes the key, so {@link #removeEmpties()} is a no-op and
+     * {@link #getTotalAmount()} is O(1). Adding, decrementing, and removing neither box nor allocate. Be aware that
+     * entries returned by its entry set's regular iterator are snapshots and cannot be set, whereas its fast iterator
+     * reuses a single entry that can be set to any positive amount.
+     */
+    class TotallingArrayMap extends AbstractInt2IntMap implements IntAmountMap {
+        private int[] keys;
+        private int[] amounts;
+        private int size;
+        private int total;
+        private EntrySet entries;
+
+        public TotallingArrayMap() {
+            this(4);
+        }
+
+        public TotallingArrayMap(final int size) {
+            this.keys = new int[Math.max(size, 1)];
+            this.amounts = new int[this.keys.length];
+        }
+
+        private int indexOf(final int key) {
+            for (int i = 0; i < this.size; i++) {
+                if (this.keys[i] == key) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void append(final int key,
+                            final int amount) {
+            if (this.size == this.keys.length) {
+                this.keys = IntArrays.grow(this.keys, this.size + 1);
+                this.amounts = IntArrays.grow(this.amounts, this.size + 1);
+            }
+            this.keys[this.size] = key;
+            this.amounts[this.size] = amount;
+            this.size++;
+            this.total += amount;
+        }
+
+        private int removeAt(final int index) {
+            final int amount = this.amounts[index];
+            final int tail = this.size - index - 1;
+            if (tail > 0) {
+                System.arraycopy(this.keys, index + 1, this.keys, index, tail);
+                System.arraycopy(this.amounts, index + 1, this.amounts, index, tail);
+            }
+            this.size--;
+            this.total -= amount;
+            return amount;
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.size == 0;
+        }
+
+        @Override
+        public boolean containsKey(final int key) {
+            return indexOf(key) != -1;
+        }
+
+        @Override
+        public int get(final int key) {
+            final int index = indexOf(key);
+            return index == -1 ? 0 : this.amounts[index];
+        }
+
+        @Override
+        public int put(final int key,
+                       final int amount) {
+            final int index = indexOf(key);
+            if (amount <= 0) {
+                return index == -1 ? 0 : removeAt(index);
+            }
+            if (index == -1) {
+                append(key, amount);
+                return 0;
+            }
+            final int previous = this.amounts[index];
+            this.amounts[index] = amount;
+            this.total += amount - previous;
+            return previous;
+        }
+
+        @Override
+        public int remove(final int key) {
+            final int index = indexOf(key);
+            return index == -1 ? 0 : removeAt(index);
+        }
+
+        @Override
+        public void clear() {
+            this.size = 0;
+            this.total = 0;
+        }
+
+        @Override
+        public void removeEmpties() {
+            // Empties are removed as they happen
+        }
+
+        @Override
+        public int getTotalAmount() {
+            return this.total;
+        }
+
+        @Override
+        public int changeAmountBy(final int key,
+                                  final int amount) {
+            final int index = indexOf(key);
+            if (index == -1) {
+                if (amount <= 0) {
+                    return 0;
+                }
+                append(key, amount);
+                return amount;
+            }
+            final int newAmount = this.amounts[index] + amount;
+            if (newAmount <= 0) {
+                removeAt(index);
+                return 0;
+            }
+            this.amounts[index] = newAmount;
+            this.total += amount;
+            return newAmount;
+        }
+
+        @Override
+        public @NotNull Int2IntMap.FastEntrySet int2IntEntrySet() {
+            if (this.entries == null) {
+                this.entries = new EntrySet();
+            }
+            return this.entries;
+        }
+
+        private final class EntrySet extends AbstractObjectSet<Int2IntMap.Entry> implements Int2IntMap.FastEntrySet {
+            @Override
+            public int size() {
+                return TotallingArrayMap.this.size;
+            }
+            @Override
+            public @NotNull ObjectIterator<Int2IntMap.Entry> iterator() {
+                return new EntryIterator(null);
+            }
+            @Override
+            public @NotNull ObjectIterator<Int2IntMap.Entry> fastIterator() {
+                return new EntryIterator(new FastEntry());
+            }
+            @Override
+            public void fastForEach(final @NotNull Consumer<? super Int2IntMap.Entry> consumer) {
+                final var entry = new FastEntry();
+                for (int i = 0; i < TotallingArrayMap.this.size; i++) {
+                    consumer.accept(entry.at(i));
+                }
+            }
+        }
+
+        /**
+         * Iterates over this map's entries, either as snapshots or, if given an entry to reuse, through that entry.
+         */
+        private final class EntryIterator implements ObjectIterator<Int2IntMap.Entry> {
+            private final FastEntry reused;
+            private int next = 0;
+            private int last = -1;
+
+            private EntryIterator(final FastEntry reused) {
+                this.reused = reused;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.next < TotallingArrayMap.this.size;
+            }
+
+            @Override
+            public Int2IntMap.Entry next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                this.last = this.next++;
+                if (this.reused != null) {
+                    return this.reused.at(this.last);
+                }
+                return new AbstractInt2IntMap.BasicEntry(
+                        TotallingArrayMap.this.keys[this.last],
+                        TotallingArrayMap.this.amounts[this.last]);
+            }
+
+            @Override
+            public void remove() {
+                if (this.last == -1) {
+                    throw new IllegalStateException();
+                }
+                removeAt(this.last);
+                this.next = this.last;
+                this.last = -1;
+            }
+        }
+
+        /**
+         * A mutable entry that's moved from index to index, and which sets amounts straight into the map.
+         */
+        private final class FastEntry extends AbstractInt2IntMap.BasicEntry {
+            private int index;
+
+            private @NotNull FastEntry at(final int index) {
+                this.index = index;
+                this.key = TotallingArrayMap.this.keys[index];
+                this.value = TotallingArrayMap.this.amounts[index];
+                return this;
+            }
+
+            @Override
+            public int setValue(final int value) {
+                if (value <= 0) {
+                    throw new IllegalArgumentException("Entry amounts must be positive, remove the entry instead!");
+                }
+                final int previous = TotallingArrayMap.this.amounts[this.index];
+                TotallingArrayMap.this.amounts[this.index] = value;
+                TotallingArrayMap.this.total += value - previous;
+                this.value = value;
+                return previous;
+            }
+        }
+
+        /**
+         * @deprecated Changing the default value from 0 in an amount map is not supported!
+         */
+        @Deprecated
+        @Override
+        public void defaultReturnValue(final int returnValue) {
+            throw new NotImplementedException("Please don't try to change the default return value!");
+        }
+    }
+
+    /**
+     * Wrapper class to make an {@link IntAmountMap} unmodifiable. Like the rest of {@link Int2IntMap}'s mutators,
+     * {@link #removeEmpties()}, {@link #computeAmount(int, IntUnaryOperator)}, {@link #changeAmountBy(int, int)},
+     * {@link #increment(int)}, and {@link #decrement(int)} all throw an {@link UnsupportedOperationException}.
+     * {@link #getTotalAmount()} is delegated to the wrapped map.
+     */
+    class Unmodifiable extends Int2IntMaps.UnmodifiableMap implements IntAmountMap {
+        private final IntAmountMap amounts;
+
+        public Unmodifiable(final @NotNull IntAmountMap map) {
+            super(Objects.requireNonNull(map));
+            this.amounts = map;
+        }
+
+        @Override
+        public void removeEmpties() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getTotalAmount() {
+            return this.amounts.getTotalAmount();
+        }
+
+        @Override
+        public int computeAmount(final int key,
+                                 final @NotNull IntUnaryOperator computer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int changeAmountBy(final int key,
+                                  final int amount) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+}
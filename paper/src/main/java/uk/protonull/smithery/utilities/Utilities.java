@@ -1,5 +1,7 @@
 package uk.protonull.smithery.utilities;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
@@ -9,6 +11,7 @@ import lombok.experimental.UtilityClass;
 import net.minecraft.nbt.CompoundTag;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.craftbukkit.v1_18_R2.inventory.CraftItemStack;
 import org.bukkit.craftbukkit.v1_18_R2.persistence.CraftPersistentDataContainer;
 import org.bukkit.event.inventory.PrepareItemCraftEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
@@ -172,4 +175,39 @@ public class Utilities {
         }
     }
 
-}
\ No newline at end of file
+    // ------------------------------------------------------------
+    // NMS Items
+    // ------------------------------------------------------------
+
+    /**
+     * Accesses {@link CraftItemStack}'s NMS item, or null if it could not be found.
+     */
+    private final VarHandle CRAFT_ITEM_HANDLE = findCraftItemHandle();
+
+    private @Nullable VarHandle findCraftItemHandle() {
+        try {
+            return MethodHandles.privateLookupIn(CraftItemStack.class, MethodHandles.lookup())
+                    .findVarHandle(CraftItemStack.class, "handle", net.minecraft.world.item.ItemStack.class);
+        }
+        catch (final ReflectiveOperationException | SecurityException thrown) {
+            LOGGER.warning("Could not access CraftItemStack's handle, items will be read through their meta: "
+                    + thrown);
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves the NMS item underlying the given item <i>without</i> copying it, which allows its NBT to be read
+     * without cloning its meta. The NMS item must not be modified.
+     *
+     * @param item The item to get the NMS item of.
+     * @return Returns the NMS item, or null if the item is not backed by one, in which case use its meta instead.
+     */
+    public @Nullable net.minecraft.world.item.ItemStack getHandle(final ItemStack item) {
+        if (CRAFT_ITEM_HANDLE != null && item instanceof final CraftItemStack craftItem) {
+            return (net.minecraft.world.item.ItemStack) CRAFT_ITEM_HANDLE.get(craftItem);
+        }
+        return null;
+    }
+
+}